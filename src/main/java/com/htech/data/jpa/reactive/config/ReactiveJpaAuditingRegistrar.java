@@ -1,12 +1,12 @@
 package com.htech.data.jpa.reactive.config;
 
 import com.htech.data.jpa.reactive.mapping.event.ReactiveAuditingEntityCallback;
+import com.htech.data.jpa.reactive.mapping.event.ReactiveJpaAuditingHandler;
 import java.lang.annotation.Annotation;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.RootBeanDefinition;
-import org.springframework.data.auditing.ReactiveIsNewAwareAuditingHandler;
 import org.springframework.data.auditing.config.AuditingBeanDefinitionRegistrarSupport;
 import org.springframework.data.auditing.config.AuditingConfiguration;
 import org.springframework.data.config.ParsingUtils;
@@ -44,8 +44,7 @@ class ReactiveJpaAuditingRegistrar extends AuditingBeanDefinitionRegistrarSuppor
     Assert.notNull(configuration, "AuditingConfiguration must not be null");
 
     return configureDefaultAuditHandlerAttributes(
-        configuration,
-        BeanDefinitionBuilder.rootBeanDefinition(ReactiveIsNewAwareAuditingHandler.class));
+        configuration, BeanDefinitionBuilder.rootBeanDefinition(ReactiveJpaAuditingHandler.class));
   }
 
   @Override
@@ -0,0 +1,354 @@
+package com.htech.data.jpa.reactive.core;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.engine.internal.Versioning;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.event.service.spi.EventListenerGroup;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.jpa.event.spi.CallbackRegistry;
+import org.hibernate.jpa.event.spi.CallbackType;
+import org.hibernate.metamodel.mapping.AttributeMapping;
+import org.hibernate.metamodel.mapping.BasicValuedModelPart;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.reactive.adaptor.impl.PreparedStatementAdaptor;
+import org.hibernate.reactive.pool.ReactiveConnection;
+import org.hibernate.reactive.session.ReactiveSession;
+import org.hibernate.reactive.stage.Stage;
+import org.hibernate.reactive.stage.impl.StageSessionImpl;
+import org.hibernate.sql.ast.spi.ParameterMarkerStrategy;
+import org.hibernate.type.TypeHelper;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes only the changed columns of managed entities, with one batched {@code UPDATE} per entity
+ * type and set of changed columns, checking the version when the entity has one. Afterwards the
+ * persistence context holds the written state, so the next flush finds nothing left to do for these
+ * entities, and the {@code POST_UPDATE} listeners have run as they would on a flush.
+ *
+ * <p>Entities this does not apply to are left to the regular flush: entities not yet inserted,
+ * changes to anything other than basic columns of a single table, and entity types with pre-update
+ * callbacks or listeners, post-commit update listeners, generated values, a second-level cache,
+ * bytecode enhancement or {@code DIRTY}/{@code ALL} optimistic locking.
+ *
+ * @author Bao.Ngo
+ */
+class DirtyColumnUpdater {
+
+  private final Map<String, Boolean> applicableEntities = new ConcurrentHashMap<>();
+  private final Map<String, String> updateStrings = new ConcurrentHashMap<>();
+
+  Mono<Void> update(Stage.Session session, List<?> entities) {
+    return Mono.defer(
+        () -> {
+          StageSessionImpl stageSession = (StageSessionImpl) session;
+          Collection<Statement> statements =
+              prepare(stageSession.unwrap(ReactiveSession.class).getSharedContract(), entities);
+          if (statements.isEmpty()) {
+            return Mono.empty();
+          }
+
+          ReactiveConnection connection = stageSession.getReactiveConnection();
+          return Flux.fromIterable(statements)
+              .concatMap(
+                  statement ->
+                      Mono.fromCompletionStage(
+                              () -> connection.update(statement.sql, statement.parameters))
+                          .doOnNext(statement::verify))
+              .then(Mono.fromRunnable(() -> statements.forEach(Statement::complete)));
+        });
+  }
+
+  /** The batched statements writing the changes of {@code entities}, one per set of columns. */
+  Collection<Statement> prepare(SessionImplementor si, List<?> entities) {
+    Map<String, Statement> statements = new LinkedHashMap<>();
+    for (Object entity : entities) {
+      prepare(si, entity, statements);
+    }
+
+    return statements.values();
+  }
+
+  private void prepare(SessionImplementor si, Object entity, Map<String, Statement> statements) {
+    EntityEntry entry = si.getPersistenceContextInternal().getEntry(entity);
+    if (entry == null || entry.getStatus() != Status.MANAGED || !entry.isExistsInDatabase()) {
+      return;
+    }
+
+    EntityPersister persister = entry.getPersister();
+    if (!isApplicable(persister, si.getFactory())) {
+      return;
+    }
+
+    Object[] state = persister.getValues(entity);
+    int[] dirty = persister.findDirty(state, entry.getLoadedState(), entity, si);
+    if (dirty == null || dirty.length == 0) {
+      return;
+    }
+
+    int versionProperty = persister.isVersioned() ? persister.getVersionProperty() : -1;
+    List<BasicValuedModelPart> columns = new ArrayList<>(dirty.length);
+    for (int i : dirty) {
+      if (i == versionProperty) {
+        continue;
+      }
+
+      AttributeMapping attribute = persister.getAttributeMapping(i);
+      if (!(attribute instanceof BasicValuedModelPart basic)
+          || basic.isFormula()
+          || !basic.isUpdateable()) {
+        return;
+      }
+      columns.add(basic);
+    }
+
+    if (columns.isEmpty()) {
+      return;
+    }
+
+    Object version = null;
+    Object nextVersion = null;
+    if (versionProperty >= 0) {
+      version = entry.getVersion();
+      nextVersion = Versioning.increment(version, persister.getVersionMapping(), si);
+      state[versionProperty] = nextVersion;
+    }
+
+    // the loaded state must not share mutable values (dates, arrays, ...) with the entity, or
+    // later in-place changes would go unnoticed
+    Object[] loadedState = state.clone();
+    TypeHelper.deepCopy(
+        state, persister.getPropertyTypes(), persister.getPropertyUpdateability(), loadedState, si);
+
+    String key = persister.getEntityName() + Arrays.toString(dirty);
+    Statement statement =
+        statements.computeIfAbsent(
+            key,
+            k ->
+                new Statement(
+                    updateStrings.computeIfAbsent(
+                        k, __ -> getUpdateString(persister, columns, si.getFactory())),
+                    si.getFactory()
+                        .getServiceRegistry()
+                        .requireService(EventListenerRegistry.class)
+                        .getEventListenerGroup(EventType.POST_UPDATE)));
+
+    Object[] parameters =
+        bind(si, persister, columns, dirty, versionProperty, state, entry, version, nextVersion);
+    PostUpdateEvent event =
+        new PostUpdateEvent(
+            entity,
+            entry.getId(),
+            state,
+            entry.getLoadedState(),
+            dirty,
+            persister,
+            (EventSource) si);
+    statement.add(parameters, new Update(entity, entry, loadedState, nextVersion, event));
+  }
+
+  private static Object[] bind(
+      SessionImplementor si,
+      EntityPersister persister,
+      List<BasicValuedModelPart> columns,
+      int[] dirty,
+      int versionProperty,
+      Object[] state,
+      EntityEntry entry,
+      Object version,
+      Object nextVersion) {
+    return PreparedStatementAdaptor.bind(
+        ps -> {
+          int index = 1;
+          int column = 0;
+          for (int i : dirty) {
+            if (i != versionProperty) {
+              bind(ps, columns.get(column++), state[i], index++, si);
+            }
+          }
+
+          if (versionProperty >= 0) {
+            bind(ps, persister.getVersionMapping(), nextVersion, index++, si);
+          }
+
+          bind(
+              ps,
+              (BasicValuedModelPart) persister.getIdentifierMapping(),
+              entry.getId(),
+              index++,
+              si);
+
+          if (versionProperty >= 0) {
+            bind(ps, persister.getVersionMapping(), version, index, si);
+          }
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void bind(
+      PreparedStatement ps,
+      BasicValuedModelPart part,
+      Object value,
+      int index,
+      SessionImplementor si)
+      throws SQLException {
+    ((ValueBinder<Object>) part.getJdbcMapping().getJdbcValueBinder())
+        .bind(ps, part.getJdbcMapping().convertToRelationalValue(value), index, si);
+  }
+
+  private static String getUpdateString(
+      EntityPersister persister,
+      List<BasicValuedModelPart> columns,
+      SessionFactoryImplementor factory) {
+    ParameterMarkerStrategy markers =
+        factory.getServiceRegistry().requireService(ParameterMarkerStrategy.class);
+    BasicValuedModelPart id = (BasicValuedModelPart) persister.getIdentifierMapping();
+
+    int position = 1;
+    StringBuilder sql =
+        new StringBuilder("update ").append(id.getContainingTableExpression()).append(" set ");
+    for (int i = 0; i < columns.size(); i++) {
+      BasicValuedModelPart column = columns.get(i);
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(column.getSelectionExpression())
+          .append('=')
+          .append(
+              writeExpression(
+                  column, markers.createMarker(position++, column.getJdbcMapping().getJdbcType())));
+    }
+
+    BasicValuedModelPart version = persister.isVersioned() ? persister.getVersionMapping() : null;
+    if (version != null) {
+      sql.append(", ")
+          .append(version.getSelectionExpression())
+          .append('=')
+          .append(markers.createMarker(position++, version.getJdbcMapping().getJdbcType()));
+    }
+
+    sql.append(" where ")
+        .append(id.getSelectionExpression())
+        .append('=')
+        .append(markers.createMarker(position++, id.getJdbcMapping().getJdbcType()));
+
+    if (version != null) {
+      sql.append(" and ")
+          .append(version.getSelectionExpression())
+          .append('=')
+          .append(markers.createMarker(position, version.getJdbcMapping().getJdbcType()));
+    }
+
+    return sql.toString();
+  }
+
+  // a @ColumnTransformer write expression takes the value as its single ?
+  private static String writeExpression(BasicValuedModelPart column, String marker) {
+    String expression = column.getCustomWriteExpression();
+    return expression == null ? marker : expression.replace("?", marker);
+  }
+
+  private boolean isApplicable(EntityPersister persister, SessionFactoryImplementor factory) {
+    return applicableEntities.computeIfAbsent(
+        persister.getEntityName(),
+        name -> {
+          // enhanced entities track their own dirtiness and may hold unfetched lazy values
+          if (!(persister instanceof AbstractEntityPersister entityPersister)
+              || entityPersister.getTableSpan() != 1
+              || persister.getBytecodeEnhancementMetadata().isEnhancedForLazyLoading()
+              || SelfDirtinessTracker.class.isAssignableFrom(persister.getMappedClass())
+              || !(persister.getIdentifierMapping() instanceof BasicValuedModelPart id)
+              || id.getCustomWriteExpression() != null
+              || (persister.isVersioned()
+                  && persister.getVersionMapping().getCustomWriteExpression() != null)
+              || persister.hasUpdateGeneratedProperties()
+              || persister.isVersionPropertyGenerated()
+              || persister.canWriteToCache()
+              || persister.getEntityMetamodel().getOptimisticLockStyle().isAllOrDirty()) {
+            return false;
+          }
+
+          // post-update callbacks run with the POST_UPDATE listeners once the rows are written
+          CallbackRegistry callbacks = factory.getEventEngine().getCallbackRegistry();
+          if (callbacks.hasRegisteredCallbacks(
+              persister.getMappedClass(), CallbackType.PRE_UPDATE)) {
+            return false;
+          }
+
+          EventListenerRegistry listeners =
+              factory.getServiceRegistry().requireService(EventListenerRegistry.class);
+          return listeners.getEventListenerGroup(EventType.PRE_UPDATE).isEmpty()
+              && listeners.getEventListenerGroup(EventType.POST_COMMIT_UPDATE).isEmpty();
+        });
+  }
+
+  private record Update(
+      Object entity,
+      EntityEntry entry,
+      Object[] state,
+      Object nextVersion,
+      PostUpdateEvent event) {}
+
+  static class Statement {
+
+    private final String sql;
+    private final EventListenerGroup<PostUpdateEventListener> postUpdateListeners;
+    private final List<Object[]> parameters = new ArrayList<>();
+    private final List<Update> updates = new ArrayList<>();
+
+    Statement(String sql, EventListenerGroup<PostUpdateEventListener> postUpdateListeners) {
+      this.sql = sql;
+      this.postUpdateListeners = postUpdateListeners;
+    }
+
+    String getSql() {
+      return sql;
+    }
+
+    int size() {
+      return updates.size();
+    }
+
+    void add(Object[] parameters, Update update) {
+      this.parameters.add(parameters);
+      this.updates.add(update);
+    }
+
+    void verify(int[] rowCounts) {
+      for (int i = 0; i < rowCounts.length; i++) {
+        if (rowCounts[i] == 0) {
+          Update update = updates.get(i);
+          throw new ObjectOptimisticLockingFailureException(
+              update.entry().getPersister().getMappedClass(), update.entry().getId());
+        }
+      }
+    }
+
+    void complete() {
+      for (Update update : updates) {
+        update.entry().postUpdate(update.entity(), update.state(), update.nextVersion());
+        postUpdateListeners.fireEventOnEachListener(
+            update.event(), PostUpdateEventListener::onPostUpdate);
+      }
+    }
+  }
+}
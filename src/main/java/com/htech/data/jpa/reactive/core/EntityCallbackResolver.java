@@ -0,0 +1,101 @@
+package com.htech.data.jpa.reactive.core;
+
+import com.htech.data.jpa.reactive.mapping.event.EntityCallbackBatch;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.mapping.callback.EntityCallback;
+import org.springframework.data.mapping.callback.ReactiveEntityCallbacks;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Invokes {@link ReactiveEntityCallbacks} only for entity types that have a callback of the
+ * requested kind registered. Whether they do is resolved once per callback and entity type from the
+ * callback beans' declared entity type; callbacks whose entity type cannot be resolved (lambdas)
+ * count for every entity.
+ *
+ * @author Bao.Ngo
+ */
+class EntityCallbackResolver {
+
+  private final @Nullable ReactiveEntityCallbacks entityCallbacks;
+  private final @Nullable ListableBeanFactory beanFactory;
+  private final Map<CallbackKey, Boolean> callbacksPresent = new ConcurrentHashMap<>();
+
+  EntityCallbackResolver(
+      @Nullable ReactiveEntityCallbacks entityCallbacks,
+      @Nullable ListableBeanFactory beanFactory) {
+    this.entityCallbacks = entityCallbacks;
+    this.beanFactory = beanFactory;
+  }
+
+  boolean hasCallbacks(Class<? extends EntityCallback> callbackType, Class<?> entityType) {
+    if (entityCallbacks == null) {
+      return false;
+    }
+
+    // callbacks handed in from outside can't be introspected
+    if (beanFactory == null) {
+      return true;
+    }
+
+    return callbacksPresent.computeIfAbsent(
+        new CallbackKey(callbackType, entityType), this::resolveCallbacksPresent);
+  }
+
+  <T> Mono<T> callback(Class<? extends EntityCallback> callbackType, T entity) {
+    if (!hasCallbacks(callbackType, ClassUtils.getUserClass(entity))) {
+      return Mono.just(entity);
+    }
+
+    return entityCallbacks.callback(callbackType, entity);
+  }
+
+  /**
+   * Runs the callbacks of {@code entities} as one {@link EntityCallbackBatch} with up to {@code
+   * concurrency} entities in flight, keeping their order. {@code entities} is returned as is when
+   * {@code domainType} and its subtypes have no such callback.
+   */
+  <T> Flux<T> callback(
+      Class<? extends EntityCallback> callbackType,
+      Class<?> domainType,
+      Flux<T> entities,
+      int concurrency) {
+    if (!hasCallbacks(callbackType, domainType)) {
+      return entities;
+    }
+
+    return entities
+        .flatMapSequential(e -> callback(callbackType, e), Math.max(1, concurrency))
+        .contextWrite(EntityCallbackBatch::open);
+  }
+
+  private boolean resolveCallbacksPresent(CallbackKey key) {
+    for (String beanName :
+        BeanFactoryUtils.beanNamesForTypeIncludingAncestors(beanFactory, key.callbackType())) {
+      Class<?> beanType = beanFactory.getType(beanName);
+      if (beanType == null) {
+        return true;
+      }
+
+      Class<?> callbackEntityType =
+          ResolvableType.forClass(beanType)
+              .as(key.callbackType())
+              .getGeneric(0)
+              .resolve(Object.class);
+      if (callbackEntityType.isAssignableFrom(key.entityType())
+          || key.entityType().isAssignableFrom(callbackEntityType)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private record CallbackKey(Class<?> callbackType, Class<?> entityType) {}
+}
@@ -0,0 +1,197 @@
+package com.htech.data.jpa.reactive.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.metamodel.mapping.AttributeMapping;
+import org.hibernate.metamodel.mapping.BasicValuedModelPart;
+import org.hibernate.metamodel.mapping.PluralAttributeMapping;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.reactive.session.ReactiveSession;
+import org.hibernate.reactive.stage.Stage;
+import org.hibernate.reactive.stage.impl.StageSessionImpl;
+import org.springframework.data.util.ProxyUtils;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Inserts or updates entities by their assigned id on the session of the caller, with HQL {@code
+ * insert ... values ... on conflict (id) do update}, which Hibernate renders as the dialect's
+ * {@code ON CONFLICT}, {@code ON DUPLICATE KEY UPDATE} or {@code MERGE}. A statement carries as
+ * many rows as the dialect's parameter limit allows.
+ *
+ * <p>Entities this does not apply to are returned to the caller: entities without an id, and entity
+ * types with anything other than basic columns of a single table to write, a composite id, a
+ * version or generated values. Instances managed by the session with an upserted id are detached,
+ * as their state may no longer match the row.
+ *
+ * @author Bao.Ngo
+ */
+class EntityUpserter {
+
+  private final Map<String, Optional<Statement>> statements = new ConcurrentHashMap<>();
+
+  Mono<List<Object>> upsert(Stage.Session session, List<?> entities) {
+    return Mono.defer(
+        () -> {
+          SessionFactoryImplementor factory =
+              ((StageSessionImpl) session)
+                  .unwrap(ReactiveSession.class)
+                  .getSharedContract()
+                  .getFactory();
+
+          Map<EntityPersister, List<Object>> rows = new LinkedHashMap<>();
+          List<Object> rest = new ArrayList<>();
+          for (Object entity : entities) {
+            EntityPersister persister =
+                factory.getMappingMetamodel().getEntityDescriptor(ProxyUtils.getUserClass(entity));
+            if (getStatement(persister).isEmpty()
+                || persister.getIdentifierMapping().getIdentifier(entity) == null) {
+              rest.add(entity);
+            } else {
+              rows.computeIfAbsent(persister, p -> new ArrayList<>()).add(entity);
+            }
+          }
+
+          int parameterLimit = factory.getJdbcServices().getDialect().getParameterCountLimit();
+          return Flux.fromIterable(rows.entrySet())
+              .concatMap(
+                  e -> {
+                    Statement statement = getStatement(e.getKey()).orElseThrow();
+                    int rowsPerStatement =
+                        parameterLimit > 0
+                            ? Math.max(1, parameterLimit / (statement.attributes().length + 1))
+                            : e.getValue().size();
+                    return Flux.fromIterable(e.getValue())
+                        .buffer(rowsPerStatement)
+                        .concatMap(chunk -> execute(session, e.getKey(), statement, chunk));
+                  })
+              .then(Mono.just(rest));
+        });
+  }
+
+  private static Mono<Integer> execute(
+      Stage.Session session, EntityPersister persister, Statement statement, List<Object> chunk) {
+    return Mono.defer(
+        () -> {
+          Stage.MutationQuery query = session.createMutationQuery(statement.hql(chunk.size()));
+          int position = 1;
+          for (Object entity : chunk) {
+            query.setParameter(position++, persister.getIdentifierMapping().getIdentifier(entity));
+            Object[] state = persister.getValues(entity);
+            for (int attribute : statement.attributes()) {
+              query.setParameter(position++, state[attribute]);
+            }
+          }
+
+          return Mono.fromCompletionStage(query.executeUpdate())
+              .doOnNext(__ -> detachManaged(session, persister, chunk));
+        });
+  }
+
+  /** Managed instances of the upserted rows hold the state they were read with. */
+  private static void detachManaged(
+      Stage.Session session, EntityPersister persister, List<Object> chunk) {
+    SessionImplementor si =
+        ((StageSessionImpl) session).unwrap(ReactiveSession.class).getSharedContract();
+    PersistenceContext persistenceContext = si.getPersistenceContextInternal();
+    for (Object entity : chunk) {
+      Object id = persister.getIdentifierMapping().getIdentifier(entity);
+      Object managed = persistenceContext.getEntity(si.generateEntityKey(id, persister));
+      if (managed != null) {
+        session.detach(managed);
+      }
+    }
+  }
+
+  private Optional<Statement> getStatement(EntityPersister persister) {
+    return statements.computeIfAbsent(
+        persister.getEntityName(), name -> Optional.ofNullable(createStatement(persister)));
+  }
+
+  @Nullable
+  private static Statement createStatement(EntityPersister persister) {
+    if (!(persister instanceof AbstractEntityPersister entityPersister)
+        || entityPersister.getTableSpan() != 1
+        || !(persister.getIdentifierMapping() instanceof BasicValuedModelPart)
+        || persister.isVersioned()
+        || persister.hasInsertGeneratedProperties()
+        || persister.hasUpdateGeneratedProperties()) {
+      return null;
+    }
+
+    String id = persister.getIdentifierPropertyName();
+    List<String> names = new ArrayList<>(List.of(id));
+    List<Integer> attributes = new ArrayList<>();
+    List<String> updated = new ArrayList<>();
+    for (int i = 0; i < persister.getNumberOfAttributeMappings(); i++) {
+      AttributeMapping attribute = persister.getAttributeMapping(i);
+      if (attribute instanceof PluralAttributeMapping plural
+          && plural.getCollectionDescriptor().isInverse()) {
+        continue;
+      }
+
+      // associations, embeddables and collection tables can't be written by an HQL insert
+      if (!(attribute instanceof BasicValuedModelPart basic) || basic.isFormula()) {
+        return null;
+      }
+
+      if (basic.isInsertable()) {
+        names.add(attribute.getAttributeName());
+        attributes.add(attribute.getStateArrayPosition());
+        if (basic.isUpdateable()) {
+          updated.add(attribute.getAttributeName());
+        }
+      }
+    }
+
+    StringBuilder conflict = new StringBuilder(" on conflict (").append(id).append(") do ");
+    if (updated.isEmpty()) {
+      conflict.append("nothing");
+    } else {
+      conflict.append("update set ");
+      for (int i = 0; i < updated.size(); i++) {
+        conflict
+            .append(i > 0 ? ", " : "")
+            .append(updated.get(i))
+            .append(" = excluded.")
+            .append(updated.get(i));
+      }
+    }
+
+    return new Statement(
+        "insert into "
+            + persister.getFactory().getJpaMetamodel().entity(persister.getEntityName()).getName()
+            + " ("
+            + String.join(", ", names)
+            + ")",
+        attributes.stream().mapToInt(Integer::intValue).toArray(),
+        conflict.toString());
+  }
+
+  /** The id is bound first, followed by the state array positions of {@code attributes}. */
+  private record Statement(String insert, int[] attributes, String conflict) {
+
+    String hql(int rows) {
+      StringBuilder hql = new StringBuilder(insert).append(" values ");
+      int position = 1;
+      for (int row = 0; row < rows; row++) {
+        hql.append(row > 0 ? ", (" : "(");
+        for (int i = 0; i <= attributes.length; i++) {
+          hql.append(i > 0 ? ", ?" : "?").append(position++);
+        }
+        hql.append(')');
+      }
+
+      return hql.append(conflict).toString();
+    }
+  }
+}
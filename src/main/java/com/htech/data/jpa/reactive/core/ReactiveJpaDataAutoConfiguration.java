@@ -1,10 +1,13 @@
 package com.htech.data.jpa.reactive.core;
 
 import com.htech.jpa.reactive.ReactiveHibernateJpaAutoConfiguration;
+import com.htech.jpa.reactive.id.PrefetchingIdentifierGeneratorFactory;
 import org.hibernate.reactive.stage.Stage;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,12 +17,28 @@ import org.springframework.context.annotation.Configuration;
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnClass({Stage.SessionFactory.class})
 @AutoConfigureAfter(ReactiveHibernateJpaAutoConfiguration.class)
+@EnableConfigurationProperties(ReactiveJpaDataProperties.class)
 public class ReactiveJpaDataAutoConfiguration {
 
   @Bean
   @ConditionalOnMissingBean
   public StageReactiveJpaEntityOperations reactiveJpaEntityTemplate(
-      Stage.SessionFactory sessionFactory) {
-    return new StageReactiveJpaEntityTemplate(sessionFactory);
+      Stage.SessionFactory sessionFactory, ReactiveJpaDataProperties dataProperties) {
+    StageReactiveJpaEntityTemplate template = new StageReactiveJpaEntityTemplate(sessionFactory);
+    template.setDataProperties(dataProperties);
+    return template;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer reactiveJpaSequenceCustomizer(
+      ReactiveJpaDataProperties dataProperties) {
+    return properties -> {
+      double prefetchThreshold = dataProperties.getSequence().getPrefetchThreshold();
+      if (prefetchThreshold > 0) {
+        properties.putIfAbsent(
+            PrefetchingIdentifierGeneratorFactory.PREFETCH_THRESHOLD,
+            String.valueOf(prefetchThreshold));
+      }
+    };
   }
 }
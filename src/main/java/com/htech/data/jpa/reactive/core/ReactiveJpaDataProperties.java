@@ -0,0 +1,237 @@
+package com.htech.data.jpa.reactive.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning options for the reactive repositories and {@link StageReactiveJpaEntityOperations}.
+ *
+ * @author Bao.Ngo
+ */
+@ConfigurationProperties(prefix = "spring.data.reactive-jpa")
+public class ReactiveJpaDataProperties {
+
+  private final Streaming streaming = new Streaming();
+  private final BulkDelete bulkDelete = new BulkDelete();
+  private final Paging paging = new Paging();
+  private final DirectDelete directDelete = new DirectDelete();
+  private final WriteBehind writeBehind = new WriteBehind();
+  private final Batch batch = new Batch();
+  private final Sequence sequence = new Sequence();
+
+  public Streaming getStreaming() {
+    return streaming;
+  }
+
+  public BulkDelete getBulkDelete() {
+    return bulkDelete;
+  }
+
+  public Paging getPaging() {
+    return paging;
+  }
+
+  public DirectDelete getDirectDelete() {
+    return directDelete;
+  }
+
+  public WriteBehind getWriteBehind() {
+    return writeBehind;
+  }
+
+  public Batch getBatch() {
+    return batch;
+  }
+
+  public Sequence getSequence() {
+    return sequence;
+  }
+
+  public static class Streaming {
+
+    /**
+     * Whether {@code Flux} returning finder methods read their results in windows of {@link
+     * #fetchSize} rows instead of loading the whole result list at once.
+     */
+    private boolean enabled = false;
+
+    /** Number of rows fetched per round trip when streaming is enabled. */
+    private int fetchSize = 1000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getFetchSize() {
+      return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
+    }
+  }
+
+  public static class BulkDelete {
+
+    /**
+     * Whether {@code deleteAll()}, {@code deleteAllById(..)} and {@code deleteAll(Iterable)} issue
+     * set-based {@code DELETE} statements instead of loading and removing every entity.
+     */
+    private boolean enabled = false;
+
+    /** Maximum number of ids bound to a single {@code DELETE ... WHERE id IN (:ids)} statement. */
+    private int chunkSize = 500;
+
+    /**
+     * Whether entity types with cascading removals or remove callbacks keep being deleted one by
+     * one so that cascades and callbacks still fire. Entity types with a custom delete
+     * ({@code @SQLDelete}, {@code @SoftDelete}) are always deleted one by one.
+     */
+    private boolean lifecycleAware = false;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    public boolean isLifecycleAware() {
+      return lifecycleAware;
+    }
+
+    public void setLifecycleAware(boolean lifecycleAware) {
+      this.lifecycleAware = lifecycleAware;
+    }
+  }
+
+  public static class Paging {
+
+    /**
+     * Whether paged reads outside a transaction run their count query on a second session at the
+     * same time as the content query, rather than after it and only when the content leaves the
+     * total open. The count query then always runs, costing a query and a connection even for pages
+     * whose content determines the total.
+     */
+    private boolean concurrentCount = false;
+
+    public boolean isConcurrentCount() {
+      return concurrentCount;
+    }
+
+    public void setConcurrentCount(boolean concurrentCount) {
+      this.concurrentCount = concurrentCount;
+    }
+  }
+
+  public static class DirectDelete {
+
+    /**
+     * Whether {@code delete(entity)} and {@code deleteById(id)} issue a single {@code DELETE} by id
+     * (and version) for entity types without cascading removals or remove callbacks, instead of
+     * loading the entity before removing it.
+     */
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+  }
+
+  public static class WriteBehind {
+
+    /**
+     * Whether {@code save(..)} and {@code saveAll(..)} inside a transaction only enlist their
+     * entities and leave the flush to the commit, instead of flushing on every call. Outside a
+     * transaction they keep flushing immediately.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC batch size applied to the transactional session once a write has been deferred; {@code
+     * 0} keeps the session's configured batch size.
+     */
+    private int batchSize = 0;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+  }
+
+  public static class Batch {
+
+    /**
+     * Number of entities written per chunk by the {@code Publisher} based bulk write methods; every
+     * chunk is flushed and detached before the next one is requested.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Number of entities whose callbacks may run at the same time in a batch. Only raise it when no
+     * callback uses the current Hibernate Reactive session: a session must not run two operations
+     * at once.
+     */
+    private int callbackConcurrency = 1;
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    public int getCallbackConcurrency() {
+      return callbackConcurrency;
+    }
+
+    public void setCallbackConcurrency(int callbackConcurrency) {
+      this.callbackConcurrency = callbackConcurrency;
+    }
+  }
+
+  public static class Sequence {
+
+    /**
+     * Fraction of a sequence's id block (its {@code allocationSize}) left when the next block is
+     * fetched in the background. {@code 0} only fetches once a block is used up.
+     */
+    private double prefetchThreshold = 0;
+
+    public double getPrefetchThreshold() {
+      return prefetchThreshold;
+    }
+
+    public void setPrefetchThreshold(double prefetchThreshold) {
+      this.prefetchThreshold = prefetchThreshold;
+    }
+  }
+}
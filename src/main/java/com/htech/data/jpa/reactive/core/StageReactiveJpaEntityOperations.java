@@ -1,6 +1,8 @@
 package com.htech.data.jpa.reactive.core;
 
 import org.hibernate.reactive.stage.Stage;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mapping.callback.EntityCallback;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -13,5 +15,50 @@ public interface StageReactiveJpaEntityOperations {
 
   <T> Flux<T> persist(Iterable<T> entity);
 
+  /**
+   * Persists {@code entities} chunk by chunk, flushing and detaching every chunk before requesting
+   * the next one, so the persistence context stays bounded whatever the size of the input.
+   */
+  <T> Flux<T> persist(Publisher<T> entities);
+
+  /**
+   * Writes the changes of {@code entities}, merging detached ones first, chunk by chunk. Changed
+   * columns are written with one batched {@code UPDATE} per set of changed columns where possible,
+   * everything else is left to the flush that ends every chunk.
+   */
+  <T> Flux<T> updateAll(Publisher<T> entities);
+
+  /**
+   * Inserts {@code entities} through a {@link Stage.StatelessSession} of its own, {@code batchSize}
+   * rows per JDBC batch and per transaction. No persistence context, dirty checking or cascading is
+   * involved, and the inserts do not take part in the transaction of the caller.
+   */
+  <T> Flux<T> insertAll(Publisher<T> entities, int batchSize);
+
+  /**
+   * Inserts or updates {@code entity} by its assigned id with a single {@code insert ... on
+   * conflict} (or the dialect's {@code MERGE}) on the session of the current transaction. Entities
+   * whose mapping the statement can't write are merged instead.
+   */
+  <T> Mono<T> upsert(T entity);
+
+  /**
+   * Upserts {@code entities} on the session of the current transaction, one multi-row statement per
+   * chunk of {@code spring.data.reactive-jpa.batch.chunk-size} entities.
+   */
+  <T> Flux<T> upsertAll(Publisher<T> entities);
+
+  <T> Mono<T> maybeCallAfterLoad(T entity);
+
+  /**
+   * Runs the {@code AfterLoadCallback}s of {@code entities}, or returns {@code entities} as is when
+   * none is registered for {@code domainType}.
+   */
+  <T> Flux<T> maybeCallAfterLoad(Class<?> domainType, Flux<T> entities);
+
+  <T> Mono<T> maybeCallBeforeDelete(T entity);
+
+  boolean hasEntityCallbacks(Class<? extends EntityCallback> callbackType, Class<?> entityType);
+
   Stage.SessionFactory sessionFactory();
 }
@@ -1,16 +1,27 @@
 package com.htech.data.jpa.reactive.core;
 
-import static reactor.core.scheduler.Schedulers.DEFAULT_POOL_SIZE;
+import static org.springframework.transaction.reactive.TransactionSynchronizationManager.forCurrentTransaction;
 
+import com.htech.data.jpa.reactive.mapping.event.AfterLoadCallback;
+import com.htech.data.jpa.reactive.mapping.event.AfterSaveCallback;
+import com.htech.data.jpa.reactive.mapping.event.BeforeDeleteCallback;
 import com.htech.data.jpa.reactive.mapping.event.BeforeSaveCallback;
+import com.htech.jpa.reactive.connection.ConnectionHolder;
 import com.htech.jpa.reactive.connection.SessionContextHolder;
+import java.util.List;
+import java.util.function.Function;
 import org.apache.commons.collections4.IterableUtils;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.reactive.stage.Stage;
+import org.reactivestreams.Publisher;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.data.mapping.callback.EntityCallback;
 import org.springframework.data.mapping.callback.ReactiveEntityCallbacks;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -20,18 +31,12 @@ import reactor.core.publisher.Mono;
 public class StageReactiveJpaEntityTemplate
     implements StageReactiveJpaEntityOperations, ApplicationContextAware {
 
-  private static final ThreadPoolTaskExecutor EXECUTOR;
-
   private final Stage.SessionFactory sessionFactory;
   private ReactiveEntityCallbacks entityCallbacks;
-
-  static {
-    EXECUTOR = new ThreadPoolTaskExecutor();
-    EXECUTOR.setCorePoolSize(DEFAULT_POOL_SIZE);
-    EXECUTOR.setMaxPoolSize(DEFAULT_POOL_SIZE * 2);
-    EXECUTOR.setThreadNamePrefix("custom-parallel-");
-    EXECUTOR.initialize();
-  }
+  private final DirtyColumnUpdater dirtyColumnUpdater = new DirtyColumnUpdater();
+  private final EntityUpserter entityUpserter = new EntityUpserter();
+  private EntityCallbackResolver callbackResolver = new EntityCallbackResolver(null, null);
+  private ReactiveJpaDataProperties dataProperties = new ReactiveJpaDataProperties();
 
   public StageReactiveJpaEntityTemplate(Stage.SessionFactory sessionFactory) {
     this.sessionFactory = sessionFactory;
@@ -47,6 +52,124 @@ public class StageReactiveJpaEntityTemplate
     return doInsert(entities);
   }
 
+  @Override
+  public <T> Flux<T> persist(Publisher<T> entities) {
+    return doInsert(entities);
+  }
+
+  @Override
+  public <T> Flux<T> updateAll(Publisher<T> entities) {
+    int chunkSize = dataProperties.getBatch().getChunkSize();
+
+    return SessionContextHolder.currentSession()
+        .flatMapMany(
+            session ->
+                maybeCallBeforeSave(Flux.from(entities))
+                    .concatMap(
+                        e ->
+                            session.contains(e)
+                                ? Mono.just(e)
+                                : Mono.fromCompletionStage(() -> session.merge(e)))
+                    .buffer(chunkSize)
+                    .concatMap(
+                        chunk ->
+                            dirtyColumnUpdater
+                                .update(session, chunk)
+                                .then(flushOrDefer(session))
+                                .thenReturn(chunk),
+                        1)
+                    .flatMapIterable(Function.identity())
+                    .as(this::maybeCallAfterSave));
+  }
+
+  @Override
+  public <T> Flux<T> insertAll(Publisher<T> entities, int batchSize) {
+    Assert.isTrue(batchSize > 0, "Batch size must be greater than zero");
+
+    return Flux.usingWhen(
+        Mono.defer(() -> Mono.fromCompletionStage(sessionFactory.openStatelessSession())),
+        session ->
+            maybeCallBeforeSave(Flux.from(entities))
+                .buffer(batchSize)
+                .concatMap(
+                    chunk ->
+                        Mono.fromCompletionStage(
+                                () ->
+                                    session.withTransaction(
+                                        tx -> session.insert(batchSize, chunk.toArray())))
+                            .thenReturn(chunk),
+                    1)
+                .flatMapIterable(Function.identity())
+                .as(this::maybeCallAfterSave),
+        session -> Mono.defer(() -> Mono.fromCompletionStage(session.close())));
+  }
+
+  @Override
+  public <T> Mono<T> upsert(T entity) {
+    return maybeCallBeforeSave(entity)
+        .flatMap(
+            e ->
+                SessionContextHolder.currentSession()
+                    .flatMap(session -> upsertChunk(session, List.of(e)))
+                    .then(maybeCallAfterSave(e)));
+  }
+
+  @Override
+  public <T> Flux<T> upsertAll(Publisher<T> entities) {
+    int chunkSize = dataProperties.getBatch().getChunkSize();
+
+    return SessionContextHolder.currentSession()
+        .flatMapMany(
+            session ->
+                maybeCallBeforeSave(Flux.from(entities))
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> upsertChunk(session, chunk).thenReturn(chunk), 1)
+                    .flatMapIterable(Function.identity())
+                    .as(this::maybeCallAfterSave));
+  }
+
+  private Mono<Void> upsertChunk(Stage.Session session, List<?> chunk) {
+    // entities the upsert statement can't write are merged, which reads them first
+    return entityUpserter
+        .upsert(session, chunk)
+        .filter(rest -> !rest.isEmpty())
+        .flatMap(
+            rest ->
+                Flux.fromIterable(rest)
+                    .concatMap(e -> Mono.fromCompletionStage(() -> session.merge(e)))
+                    .then(flushOrDefer(session)));
+  }
+
+  private <T> Flux<T> doInsert(Publisher<T> entities) {
+    int chunkSize = dataProperties.getBatch().getChunkSize();
+
+    return SessionContextHolder.currentSession()
+        .flatMapMany(
+            session ->
+                maybeCallBeforeSave(Flux.from(entities))
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> persistChunk(session, chunk), 1)
+                    .flatMapIterable(Function.identity()));
+  }
+
+  private <T> Mono<List<T>> persistChunk(Stage.Session session, List<T> chunk) {
+    return Mono.defer(
+        () ->
+            Mono.fromCompletionStage(session.persist(chunk.toArray()))
+                .then(deferFlushing(session))
+                .then(
+                    Mono.fromRunnable(
+                        () -> {
+                          // only this chunk leaves the persistence context, other managed
+                          // entities of the session stay attached
+                          for (T e : chunk) {
+                            session.detach(e);
+                          }
+                        }))
+                .thenMany(maybeCallAfterSave(Flux.fromIterable(chunk)))
+                .collectList());
+  }
+
   private <T> Flux<T> doInsert(Iterable<T> entities) {
     if (IterableUtils.isEmpty(entities)) {
       return Flux.empty();
@@ -55,17 +178,16 @@ public class StageReactiveJpaEntityTemplate
     return SessionContextHolder.currentSession()
         .flatMap(
             session ->
-                Flux.fromIterable(entities)
-                    .concatMap(this::maybeCallBeforeSave)
+                maybeCallBeforeSave(Flux.fromIterable(entities))
                     .collectList()
                     .flatMap(
                         list ->
                             Mono.defer(
                                 () ->
                                     Mono.fromCompletionStage(session.persist(list.toArray()))
-                                        .then(deferFlushing(session))
+                                        .then(flushOrDefer(session))
                                         .thenReturn(list))))
-        .flatMapMany(Flux::fromIterable);
+        .flatMapMany(list -> maybeCallAfterSave(Flux.fromIterable(list)));
   }
 
   private <T> Mono<T> doInsert(T entity) {
@@ -78,29 +200,103 @@ public class StageReactiveJpaEntityTemplate
                             Mono.defer(
                                 () ->
                                     Mono.fromCompletionStage(session.persist(e))
-                                        .then(deferFlushing(session))
-                                        .thenReturn(e))));
-
-    //    Mono<T> tMono = test.flatMap(v -> {
-    //      return this.<T>maybeCallBeforeSave(entity);
-    //    });
-    //    return tMono.as(e -> {
-    //      return toWrapper(e, Uni.class).chain(t -> session
-    //          .persist(t)
-    //          .chain(session::flush)
-    //          .replaceWith(t)
-    //          .emitOn(EXECUTOR)
-    //          .runSubscriptionOn(EXECUTOR));
-    //    })
-    //    ;
+                                        .then(flushOrDefer(session))
+                                        .then(maybeCallAfterSave(e)))));
   }
 
   private <T> Mono<T> maybeCallBeforeSave(T entity) {
-    if (entityCallbacks != null) {
-      return entityCallbacks.callback(BeforeSaveCallback.class, entity);
+    return callbackResolver.callback(BeforeSaveCallback.class, entity);
+  }
+
+  private <T> Flux<T> maybeCallBeforeSave(Flux<T> entities) {
+    return callback(BeforeSaveCallback.class, entities);
+  }
+
+  private <T> Mono<T> maybeCallAfterSave(T entity) {
+    return callbackResolver.callback(AfterSaveCallback.class, entity);
+  }
+
+  private <T> Flux<T> maybeCallAfterSave(Flux<T> entities) {
+    return callback(AfterSaveCallback.class, entities);
+  }
+
+  /**
+   * Runs the callbacks of {@code entities}, which belong to one entity hierarchy: whether there are
+   * any is resolved for the root entity of the first one.
+   */
+  private <T> Flux<T> callback(Class<? extends EntityCallback> callbackType, Flux<T> entities) {
+    return entities.switchOnFirst(
+        (first, all) ->
+            first.hasValue()
+                ? callbackResolver.callback(
+                    callbackType, getRootEntityType(first.get()), all, getCallbackConcurrency())
+                : all);
+  }
+
+  private Class<?> getRootEntityType(Object entity) {
+    Class<?> type = ClassUtils.getUserClass(entity);
+    if (sessionFactory.getMetamodel() instanceof MappingMetamodel mappingMetamodel) {
+      EntityPersister persister = mappingMetamodel.findEntityDescriptor(type);
+      if (persister != null) {
+        return persister.getRootEntityDescriptor().getEntityPersister().getMappedClass();
+      }
     }
 
-    return Mono.just(entity);
+    return type;
+  }
+
+  @Override
+  public <T> Mono<T> maybeCallAfterLoad(T entity) {
+    return callbackResolver.callback(AfterLoadCallback.class, entity);
+  }
+
+  @Override
+  public <T> Flux<T> maybeCallAfterLoad(Class<?> domainType, Flux<T> entities) {
+    return callbackResolver.callback(
+        AfterLoadCallback.class, domainType, entities, getCallbackConcurrency());
+  }
+
+  @Override
+  public <T> Mono<T> maybeCallBeforeDelete(T entity) {
+    return callbackResolver.callback(BeforeDeleteCallback.class, entity);
+  }
+
+  @Override
+  public boolean hasEntityCallbacks(
+      Class<? extends EntityCallback> callbackType, Class<?> entityType) {
+    return callbackResolver.hasCallbacks(callbackType, entityType);
+  }
+
+  private int getCallbackConcurrency() {
+    return dataProperties.getBatch().getCallbackConcurrency();
+  }
+
+  /**
+   * Flushes right away, or in write-behind mode leaves the flush to the commit of the transaction
+   * the session is bound to. Queries issued in between still see the pending writes through
+   * Hibernate's auto flush.
+   */
+  private Mono<Void> flushOrDefer(Stage.Session session) {
+    ReactiveJpaDataProperties.WriteBehind writeBehind = dataProperties.getWriteBehind();
+    if (!writeBehind.isEnabled()) {
+      return deferFlushing(session);
+    }
+
+    return forCurrentTransaction()
+        .mapNotNull(tsm -> tsm.getResource(sessionFactory))
+        .filter(ConnectionHolder.class::isInstance)
+        .map(ConnectionHolder.class::cast)
+        .filter(holder -> holder.getConnection() == session)
+        .onErrorResume(e -> Mono.empty())
+        .doOnNext(
+            holder -> {
+              if (writeBehind.getBatchSize() > 0) {
+                session.setBatchSize(writeBehind.getBatchSize());
+              }
+              holder.setFlushRequired(true);
+            })
+        .hasElement()
+        .flatMap(deferred -> deferred ? Mono.empty() : deferFlushing(session));
   }
 
   private static Mono<Void> deferFlushing(Stage.Session session) {
@@ -115,11 +311,18 @@ public class StageReactiveJpaEntityTemplate
   @Override
   public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
     if (entityCallbacks == null) {
-      setEntityCallbacks(ReactiveEntityCallbacks.create(applicationContext));
+      this.entityCallbacks = ReactiveEntityCallbacks.create(applicationContext);
+      this.callbackResolver = new EntityCallbackResolver(entityCallbacks, applicationContext);
     }
   }
 
+  public void setDataProperties(ReactiveJpaDataProperties dataProperties) {
+    Assert.notNull(dataProperties, "ReactiveJpaDataProperties must not be null");
+    this.dataProperties = dataProperties;
+  }
+
   public void setEntityCallbacks(ReactiveEntityCallbacks entityCallbacks) {
     this.entityCallbacks = entityCallbacks;
+    this.callbackResolver = new EntityCallbackResolver(entityCallbacks, null);
   }
 }
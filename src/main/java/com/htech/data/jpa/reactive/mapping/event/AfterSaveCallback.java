@@ -0,0 +1,13 @@
+package com.htech.data.jpa.reactive.mapping.event;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.mapping.callback.EntityCallback;
+
+/**
+ * @author Bao.Ngo
+ */
+@FunctionalInterface
+public interface AfterSaveCallback<T> extends EntityCallback<T> {
+
+  Publisher<T> onAfterSave(T entity);
+}
@@ -0,0 +1,41 @@
+package com.htech.data.jpa.reactive.mapping.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Attributes shared by the callbacks of all entities in one batch, e.g. a {@code saveAll}. Lets a
+ * callback resolve something once per batch instead of once per entity.
+ *
+ * @author Bao.Ngo
+ */
+public final class EntityCallbackBatch {
+
+  private static final Object KEY = EntityCallbackBatch.class;
+
+  private final Map<Object, Object> attributes = new ConcurrentHashMap<>();
+
+  private EntityCallbackBatch() {}
+
+  /** Opens a batch in {@code context} unless one is open already. */
+  public static Context open(Context context) {
+    return context.hasKey(KEY) ? context : context.put(KEY, new EntityCallbackBatch());
+  }
+
+  /**
+   * The attribute stored under {@code key} in the batch open in {@code context}, created by {@code
+   * supplier} on first access; outside a batch {@code supplier} is called every time.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T getAttribute(ContextView context, Object key, Supplier<T> supplier) {
+    if (!context.hasKey(KEY)) {
+      return supplier.get();
+    }
+
+    EntityCallbackBatch batch = context.get(KEY);
+    return (T) batch.attributes.computeIfAbsent(key, k -> supplier.get());
+  }
+}
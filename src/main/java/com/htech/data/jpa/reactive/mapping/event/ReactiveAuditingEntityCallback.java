@@ -12,6 +12,7 @@ import org.springframework.util.Assert;
 public class ReactiveAuditingEntityCallback implements BeforeSaveCallback<Object>, Ordered {
 
   private final ObjectFactory<ReactiveIsNewAwareAuditingHandler> auditingHandlerFactory;
+  private volatile ReactiveIsNewAwareAuditingHandler auditingHandler;
 
   public ReactiveAuditingEntityCallback(
       ObjectFactory<ReactiveIsNewAwareAuditingHandler> auditingHandlerFactory) {
@@ -21,7 +22,17 @@ public class ReactiveAuditingEntityCallback implements BeforeSaveCallback<Object
 
   @Override
   public Publisher<Object> onBeforeConvert(Object entity) {
-    return auditingHandlerFactory.getObject().markAudited(entity);
+    return getAuditingHandler().markAudited(entity);
+  }
+
+  private ReactiveIsNewAwareAuditingHandler getAuditingHandler() {
+    ReactiveIsNewAwareAuditingHandler handler = this.auditingHandler;
+    if (handler == null) {
+      handler = auditingHandlerFactory.getObject();
+      this.auditingHandler = handler;
+    }
+
+    return handler;
   }
 
   @Override
@@ -0,0 +1,48 @@
+package com.htech.data.jpa.reactive.mapping.event;
+
+import org.springframework.data.auditing.ReactiveIsNewAwareAuditingHandler;
+import org.springframework.data.domain.ReactiveAuditorAware;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveIsNewAwareAuditingHandler} that looks the current auditor up once per {@link
+ * EntityCallbackBatch} rather than once per audited entity.
+ *
+ * @author Bao.Ngo
+ */
+public class ReactiveJpaAuditingHandler extends ReactiveIsNewAwareAuditingHandler {
+
+  public ReactiveJpaAuditingHandler(PersistentEntities entities) {
+    super(entities);
+  }
+
+  public static ReactiveJpaAuditingHandler from(MappingContext<?, ?> mappingContext) {
+    return new ReactiveJpaAuditingHandler(PersistentEntities.of(mappingContext));
+  }
+
+  @Override
+  public void setAuditorAware(ReactiveAuditorAware<?> auditorAware) {
+    Assert.notNull(auditorAware, "AuditorAware must not be null");
+    super.setAuditorAware(new BatchAuditorAware(auditorAware));
+  }
+
+  private static class BatchAuditorAware implements ReactiveAuditorAware<Object> {
+
+    private final ReactiveAuditorAware<?> delegate;
+
+    BatchAuditorAware(ReactiveAuditorAware<?> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<Object> getCurrentAuditor() {
+      return Mono.deferContextual(
+          c ->
+              EntityCallbackBatch.getAttribute(
+                  c, this, () -> delegate.getCurrentAuditor().cast(Object.class).cache()));
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.htech.data.jpa.reactive.repository;
 
+import org.reactivestreams.Publisher;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.Repository;
@@ -26,6 +27,36 @@ public interface ReactiveCrudRepository<T, ID> extends Repository<T, ID> {
   @Transactional
   <S extends T> Flux<S> saveAll(Iterable<S> entities);
 
+  /**
+   * Saves the entities of {@code entityStream} in chunks of {@code
+   * spring.data.reactive-jpa.batch.chunk-size}, emitting every chunk once it has been flushed.
+   * Saved entities are detached afterwards.
+   */
+  @Transactional
+  <S extends T> Flux<S> saveAll(Publisher<S> entityStream);
+
+  /**
+   * Writes the changes of {@code entityStream}, merging detached entities first. Only changed
+   * columns are written, with one batched statement per set of changed columns where the mapping
+   * allows it. Emits the managed instances.
+   */
+  @Transactional
+  <S extends T> Flux<S> updateAll(Publisher<S> entityStream);
+
+  /**
+   * Inserts or updates {@code entity} by its assigned id in one statement, without reading it
+   * first. The returned instance is not managed.
+   */
+  @Transactional
+  <S extends T> Mono<S> upsert(S entity);
+
+  /**
+   * Upserts {@code entityStream} in chunks of {@code spring.data.reactive-jpa.batch.chunk-size},
+   * one statement per chunk.
+   */
+  @Transactional
+  <S extends T> Flux<S> upsertAll(Publisher<S> entityStream);
+
   Mono<Boolean> existsById(ID id);
 
   <S extends T> Flux<S> findAllById(Iterable<ID> ids);
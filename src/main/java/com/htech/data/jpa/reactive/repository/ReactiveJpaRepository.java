@@ -1,10 +1,24 @@
 package com.htech.data.jpa.reactive.repository;
 
+import java.util.Map;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 /**
  * @author Bao.Ngo
  */
 @NoRepositoryBean
 public interface ReactiveJpaRepository<T, ID>
-    extends ReactiveCrudRepository<T, ID>, ReactivePagingAndSortingRepository<T, ID> {}
+    extends ReactiveCrudRepository<T, ID>, ReactivePagingAndSortingRepository<T, ID> {
+
+  /**
+   * Sets the attributes in {@code values} on the row with the given id with a single {@code UPDATE}
+   * statement, without loading the entity. A managed instance with that id is detached from the
+   * current session.
+   *
+   * @return the number of updated rows, {@code 0} if there's no row with that id.
+   */
+  @Transactional
+  Mono<Long> patch(ID id, Map<String, Object> values);
+}
@@ -1,9 +1,14 @@
 package com.htech.data.jpa.reactive.repository;
 
 import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -20,9 +25,23 @@ public interface ReactiveJpaSpecificationExecutor<T> {
 
   Mono<Page<T>> findAll(Specification<T> spec, Pageable pageable);
 
+  Mono<Slice<T>> findSlice(Specification<T> spec, Pageable pageable);
+
+  Mono<Window<T>> scroll(
+      Specification<T> spec, ScrollPosition scrollPosition, Sort sort, Limit limit);
+
   Mono<Long> count(Specification<T> spec);
 
   Mono<Boolean> exists(Specification<T> spec);
 
   Mono<Long> delete(Specification<T> spec);
+
+  /**
+   * Applies the assignments collected by {@code updates} to every row matching {@code spec} with a
+   * single {@code UPDATE} statement, incrementing numeric versions. Entities are neither loaded nor
+   * passed through callbacks.
+   *
+   * @return the number of updated rows.
+   */
+  Mono<Long> update(Specification<T> spec, Consumer<UpdateSpec<T>> updates);
 }
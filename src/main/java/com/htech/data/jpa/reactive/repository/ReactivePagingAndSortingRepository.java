@@ -1,8 +1,12 @@
 package com.htech.data.jpa.reactive.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.Repository;
 import reactor.core.publisher.Flux;
@@ -17,4 +21,17 @@ public interface ReactivePagingAndSortingRepository<T, ID> extends Repository<T,
   Flux<T> findAll(Sort sort);
 
   Mono<Page<T>> findAll(Pageable pageable);
+
+  /**
+   * Reads the requested page without counting all rows; one extra row is fetched to tell whether a
+   * next slice exists.
+   */
+  Mono<Slice<T>> findSlice(Pageable pageable);
+
+  /**
+   * Reads the window after (or before) {@code scrollPosition}. A {@link
+   * org.springframework.data.domain.KeysetScrollPosition} seeks with a predicate on the sort keys,
+   * the entity id being appended as tie-breaker, so deep windows cost as much as the first one.
+   */
+  Mono<Window<T>> scroll(ScrollPosition scrollPosition, Sort sort, Limit limit);
 }
@@ -0,0 +1,44 @@
+package com.htech.data.jpa.reactive.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * The assignments of a bulk update issued through {@link
+ * ReactiveJpaSpecificationExecutor#update(org.springframework.data.jpa.domain.Specification,
+ * java.util.function.Consumer)}.
+ *
+ * @author Bao.Ngo
+ */
+public class UpdateSpec<T> {
+
+  private final Map<String, Object> assignments = new LinkedHashMap<>();
+  private boolean evictManaged;
+
+  /** Sets the attribute {@code attributeName} to {@code value}, {@code null} included. */
+  public UpdateSpec<T> set(String attributeName, @Nullable Object value) {
+    Assert.hasText(attributeName, "Attribute name must not be empty");
+    assignments.put(attributeName, value);
+    return this;
+  }
+
+  /**
+   * Detaches the managed instances of the entity type from the current session once the update has
+   * run, so later reads see the updated rows instead of stale instances.
+   */
+  public UpdateSpec<T> evictManaged() {
+    this.evictManaged = true;
+    return this;
+  }
+
+  public Map<String, Object> getAssignments() {
+    return Collections.unmodifiableMap(assignments);
+  }
+
+  public boolean isEvictManaged() {
+    return evictManaged;
+  }
+}
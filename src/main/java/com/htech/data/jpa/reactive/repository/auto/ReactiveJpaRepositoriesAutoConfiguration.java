@@ -1,10 +1,12 @@
 package com.htech.data.jpa.reactive.repository.auto;
 
+import com.htech.data.jpa.reactive.repository.query.QueryEnhancerRuntimeHints;
 import com.htech.jpa.reactive.ReactiveHibernateJpaAutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.context.annotation.ImportSelector;
 import org.springframework.core.type.AnnotationMetadata;
 
@@ -17,6 +19,7 @@ import org.springframework.core.type.AnnotationMetadata;
   TaskExecutionAutoConfiguration.class
 })
 @Import(ReactiveJpaRepositoriesAutoConfiguration.ReactiveJpaRepositoriesImportSelector.class)
+@ImportRuntimeHints(QueryEnhancerRuntimeHints.class)
 public class ReactiveJpaRepositoriesAutoConfiguration {
 
   static class ReactiveJpaRepositoriesImportSelector implements ImportSelector {
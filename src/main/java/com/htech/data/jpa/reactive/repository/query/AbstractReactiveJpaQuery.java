@@ -1,5 +1,8 @@
 package com.htech.data.jpa.reactive.repository.query;
 
+import com.htech.data.jpa.reactive.core.ReactiveJpaDataProperties;
+import com.htech.data.jpa.reactive.core.StageReactiveJpaEntityOperations;
+import com.htech.data.jpa.reactive.mapping.event.AfterLoadCallback;
 import com.htech.jpa.reactive.connection.SessionContextHolder;
 import jakarta.persistence.*;
 import java.util.*;
@@ -7,6 +10,7 @@ import java.util.stream.Collectors;
 import org.hibernate.reactive.stage.Stage;
 import org.reactivestreams.Publisher;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.query.JpaEntityGraph;
 import org.springframework.data.jpa.repository.support.QueryHints;
 import org.springframework.data.jpa.util.JpaMetamodel;
@@ -16,6 +20,7 @@ import org.springframework.data.repository.query.ReturnedType;
 import org.springframework.data.util.Lazy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
@@ -27,8 +32,11 @@ public abstract class AbstractReactiveJpaQuery implements RepositoryQuery {
   protected final ReactiveJpaQueryMethod method;
   protected final Stage.SessionFactory sessionFactory;
   protected final JpaMetamodel metamodel;
+  protected final CountQueryOptimizer countQueryOptimizer;
   //  private final PersistenceProvider provider;
   protected final Lazy<ReactiveJpaQueryExecution> execution;
+  protected ReactiveJpaDataProperties dataProperties = new ReactiveJpaDataProperties();
+  protected @Nullable StageReactiveJpaEntityOperations entityOperations;
 
   final Lazy<ParameterBinder> parameterBinder = Lazy.of(this::createBinder);
 
@@ -41,20 +49,29 @@ public abstract class AbstractReactiveJpaQuery implements RepositoryQuery {
     this.method = method;
     this.sessionFactory = sessionFactory;
     this.metamodel = JpaMetamodel.of(sessionFactory.getMetamodel());
+    this.countQueryOptimizer = new CountQueryOptimizer(sessionFactory.getMetamodel());
     //    this.provider = PersistenceProvider.fromMetamodel().fr(em);
     this.execution =
         Lazy.of(
             () -> {
 
-              /*if (method.isStreamQuery()) {
-                return new ReactiveJpaQueryExecution.StreamExecution();
-              } else*/
               /*if (method.isProcedureQuery()) {
                 return new ReactiveJpaQueryExecution.ProcedureExecution(method.isCollectionQuery());
-              } else*/ if (method.isCollectionQuery()) {
+              } else*/ if (method.isCollectionQuery()
+                  && !method.isModifyingQuery()
+                  && dataProperties.getStreaming().isEnabled()) {
+                return new ReactiveJpaQueryExecution.StreamExecution(
+                    dataProperties.getStreaming().getFetchSize());
+              } else if (method.isCollectionQuery()) {
                 return new ReactiveJpaQueryExecution.CollectionExecution();
+              } else if (method.isScrollQuery()) {
+                return new ReactiveJpaQueryExecution.ScrollExecution(
+                    Sort.unsorted(), new ReactiveScrollDelegate<>(null));
+              } else if (method.isSliceQuery()) {
+                return new ReactiveJpaQueryExecution.SlicedExecution();
               } else if (method.isPageQuery()) {
-                return new ReactiveJpaQueryExecution.PagedExecution();
+                return new ReactiveJpaQueryExecution.PagedExecution(
+                    dataProperties.getPaging().isConcurrentCount() ? sessionFactory : null);
               } else if (method.isModifyingQuery()) {
                 return null;
               } else {
@@ -68,6 +85,55 @@ public abstract class AbstractReactiveJpaQuery implements RepositoryQuery {
     return method;
   }
 
+  public void setDataProperties(ReactiveJpaDataProperties dataProperties) {
+    Assert.notNull(dataProperties, "ReactiveJpaDataProperties must not be null");
+    this.dataProperties = dataProperties;
+  }
+
+  public void setEntityOperations(StageReactiveJpaEntityOperations entityOperations) {
+    Assert.notNull(entityOperations, "StageReactiveJpaEntityOperations must not be null");
+    this.entityOperations = entityOperations;
+  }
+
+  /** Runs the {@code AfterLoadCallback}s of the entities read; projections are left as they are. */
+  <T> Flux<T> maybeCallAfterLoad(Flux<T> results, ReactiveJpaParametersParameterAccessor accessor) {
+    if (!readsEntitiesWithAfterLoad(accessor)) {
+      return results;
+    }
+
+    return entityOperations.maybeCallAfterLoad(
+        method.getEntityInformation().getJavaType(), results);
+  }
+
+  <T> Mono<T> maybeCallAfterLoad(Mono<T> result, ReactiveJpaParametersParameterAccessor accessor) {
+    if (!readsEntitiesWithAfterLoad(accessor)) {
+      return result;
+    }
+
+    return result.flatMap(entityOperations::maybeCallAfterLoad);
+  }
+
+  <T> Mono<List<T>> maybeCallAfterLoad(
+      List<T> results, ReactiveJpaParametersParameterAccessor accessor) {
+    if (results.isEmpty() || !readsEntitiesWithAfterLoad(accessor)) {
+      return Mono.just(results);
+    }
+
+    return maybeCallAfterLoad(Flux.fromIterable(results), accessor).collectList();
+  }
+
+  private boolean readsEntitiesWithAfterLoad(ReactiveJpaParametersParameterAccessor accessor) {
+    return entityOperations != null
+        && !method.isModifyingQuery()
+        && !method
+            .getResultProcessor()
+            .withDynamicProjection(accessor)
+            .getReturnedType()
+            .isProjecting()
+        && entityOperations.hasEntityCallbacks(
+            AfterLoadCallback.class, method.getEntityInformation().getJavaType());
+  }
+
   protected JpaMetamodel getMetamodel() {
     return metamodel;
   }
@@ -134,6 +200,15 @@ public abstract class AbstractReactiveJpaQuery implements RepositoryQuery {
     }
   }
 
+  /**
+   * The orders added to the sort of a streamed read so that its offset windows neither skip nor
+   * repeat rows, or {@code null} when the query can't be given a unique order and is read at once.
+   */
+  @Nullable
+  protected Sort getStreamTiebreaker(ReactiveJpaParametersParameterAccessor accessor) {
+    return null;
+  }
+
   protected <T extends Stage.AbstractQuery> T applyHints(T query, ReactiveJpaQueryMethod method) {
     // No hints supported yet
     return query;
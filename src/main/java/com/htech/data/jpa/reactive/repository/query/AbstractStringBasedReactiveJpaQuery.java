@@ -1,6 +1,10 @@
 package com.htech.data.jpa.reactive.repository.query;
 
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.hibernate.reactive.stage.Stage;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -12,6 +16,7 @@ import org.springframework.data.util.Lazy;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
@@ -20,6 +25,8 @@ import reactor.util.function.Tuples;
  */
 public class AbstractStringBasedReactiveJpaQuery extends AbstractReactiveJpaQuery {
 
+  private static final int SORTED_QUERY_CACHE_SIZE = 16;
+
   protected final DeclaredQuery query;
   protected final Lazy<DeclaredQuery> countQuery;
   protected final ReactiveQueryMethodEvaluationContextProvider evaluationContextProvider;
@@ -27,6 +34,9 @@ public class AbstractStringBasedReactiveJpaQuery extends AbstractReactiveJpaQuer
   protected final QueryParameterSetter.QueryMetadataCache metadataCache =
       new QueryParameterSetter.QueryMetadataCache();
   protected final QueryRewriter queryRewriter;
+  private final QueryEnhancer queryEnhancer;
+  private final ConcurrentLruCache<Sort, String> sortedQueries;
+  private final Lazy<Optional<Sort>> idSort;
 
   public AbstractStringBasedReactiveJpaQuery(
       ReactiveJpaQueryMethod method,
@@ -55,12 +65,37 @@ public class AbstractStringBasedReactiveJpaQuery extends AbstractReactiveJpaQuer
             () -> {
               DeclaredQuery countQuery =
                   query.deriveCountQuery(countQueryString, method.getCountQueryProjection());
+              if (countQueryString == null && !method.isNativeQuery()) {
+                countQuery =
+                    DeclaredQuery.of(
+                        countQueryOptimizer.optimize(
+                            query.getQueryString(), countQuery.getQueryString()),
+                        false);
+              }
               return ExpressionBasedStringQuery.from(
                   countQuery, method.getEntityInformation(), parser, method.isNativeQuery());
             });
 
     this.parser = parser;
     this.queryRewriter = queryRewriter;
+    this.queryEnhancer =
+        query instanceof StringQuery stringQuery
+            ? stringQuery.getQueryEnhancer()
+            : QueryEnhancerFactory.forQuery(query);
+    this.sortedQueries =
+        new ConcurrentLruCache<>(
+            SORTED_QUERY_CACHE_SIZE, sort -> queryEnhancer.applySorting(sort, query.getAlias()));
+    this.idSort =
+        Lazy.of(
+            () -> {
+              EntityType<?> domainType =
+                  sessionFactory.getMetamodel().entity(method.getEntityInformation().getJavaType());
+              return method.isNativeQuery()
+                      || !QueryStreamUtils.supportsOffsetWindows(
+                          query.getQueryString(), query.getAlias(), domainType)
+                  ? Optional.empty()
+                  : Optional.of(idSort(domainType));
+            });
 
     Assert.isTrue(
         method.isNativeQuery() || !query.usesJdbcStyleParameters(),
@@ -76,11 +111,9 @@ public class AbstractStringBasedReactiveJpaQuery extends AbstractReactiveJpaQuer
     //        QueryEnhancerFactory.forQuery(query).applySorting(accessor.getSort(),
     // query.getAlias());
 
+    Sort sort = getQuerySort(accessor);
     return Mono.zip(
-            Mono.fromSupplier(
-                () ->
-                    QueryEnhancerFactory.forQuery(query)
-                        .applySorting(accessor.getSort(), query.getAlias())),
+            Mono.fromSupplier(() -> getSortedQueryString(sort)),
             Mono.fromSupplier(
                 () -> getQueryMethod().getResultProcessor().withDynamicProjection(accessor)))
         .flatMap(
@@ -92,7 +125,7 @@ public class AbstractStringBasedReactiveJpaQuery extends AbstractReactiveJpaQuer
                       session,
                       sortedQueryString,
                       method,
-                      accessor.getSort(),
+                      sort,
                       accessor.getPageable(),
                       processor.getReturnedType())
                   .zipWhen(
@@ -138,6 +171,50 @@ public class AbstractStringBasedReactiveJpaQuery extends AbstractReactiveJpaQuer
   //        .defaultIfEmpty(DefaultR2dbcSpELExpressionEvaluator.unsupported());
   //  }
 
+  /**
+   * The query string with {@code sort} applied. The query is parsed once; sorted variants are kept
+   * in a small LRU cache since a method usually sees only a handful of distinct sorts.
+   */
+  protected String getSortedQueryString(Sort sort) {
+    return sort.isUnsorted() ? query.getQueryString() : sortedQueries.get(sort);
+  }
+
+  /** The sort of the query, ordered by the id as well when it is streamed in windows. */
+  private Sort getQuerySort(ReactiveJpaParametersParameterAccessor accessor) {
+    Sort tiebreaker =
+        getExecution() instanceof ReactiveJpaQueryExecution.StreamExecution
+            ? getStreamTiebreaker(accessor)
+            : null;
+    return tiebreaker == null ? accessor.getSort() : accessor.getSort().and(tiebreaker);
+  }
+
+  @Override
+  @Nullable
+  protected Sort getStreamTiebreaker(ReactiveJpaParametersParameterAccessor accessor) {
+    // an entity graph may fetch a collection
+    if (getQueryMethod().getEntityGraph() != null || idSort.get().isEmpty()) {
+      return null;
+    }
+
+    Sort sort = accessor.getSort();
+    return Sort.by(
+        idSort.get().get().filter(order -> sort.getOrderFor(order.getProperty()) == null).toList());
+  }
+
+  private static Sort idSort(EntityType<?> domainType) {
+    Set<? extends SingularAttribute<?, ?>> ids =
+        domainType.hasSingleIdAttribute()
+            ? domainType.getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .collect(Collectors.toSet())
+            : domainType.getIdClassAttributes();
+    return Sort.by(ids.stream().map(SingularAttribute::getName).sorted().toArray(String[]::new));
+  }
+
+  protected QueryEnhancer getQueryEnhancer() {
+    return queryEnhancer;
+  }
+
   @Override
   protected ParameterBinder createBinder() {
     return ParameterBinderFactory.createQueryAwareBinder(
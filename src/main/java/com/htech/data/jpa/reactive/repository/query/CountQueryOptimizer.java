@@ -0,0 +1,298 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.grammars.hql.HqlLexer;
+import org.hibernate.grammars.hql.HqlParser;
+import org.springframework.lang.Nullable;
+
+/**
+ * Trims derived JPQL/HQL count queries on Hibernate's HQL parse tree. A {@code LEFT JOIN} is
+ * dropped when nothing outside the join refers to its alias and it either targets a to-one
+ * association, which can neither remove nor repeat a row, or was a fetch join in the content query,
+ * whose root entities Hibernate returns once per row anyway. Queries the optimizer does not
+ * understand are returned unchanged.
+ *
+ * @author Bao.Ngo
+ */
+public class CountQueryOptimizer {
+
+  private static final Log LOG = LogFactory.getLog(CountQueryOptimizer.class);
+
+  private final Metamodel metamodel;
+
+  public CountQueryOptimizer(Metamodel metamodel) {
+    this.metamodel = metamodel;
+  }
+
+  /**
+   * @param query the content query, used to find its fetch joins
+   * @param countQuery the count query derived from {@code query}
+   */
+  public String optimize(String query, String countQuery) {
+    try {
+      Set<String> fetchPaths = leftFetchJoinPaths(query);
+
+      Parsed parsed = parse(countQuery);
+      HqlParser.QueryContext spec = simpleQuery(parsed.statement());
+      if (spec == null || spec.fromClause() == null) {
+        return countQuery;
+      }
+
+      Map<String, ManagedType<?>> aliases = new HashMap<>();
+      List<Candidate> candidates = new ArrayList<>();
+      for (HqlParser.EntityWithJoinsContext entityWithJoins : spec.fromClause().entityWithJoins()) {
+        if (!(entityWithJoins.fromRoot() instanceof HqlParser.RootEntityContext root)) {
+          return countQuery;
+        }
+        EntityType<?> entity = entity(root.entityName().getText());
+        if (entity == null) {
+          return countQuery;
+        }
+        register(aliases, root.variable(), entity);
+
+        for (HqlParser.JoinContext join : entityWithJoins.join()) {
+          candidates.add(resolve(join, aliases, fetchPaths));
+        }
+      }
+
+      List<Candidate> removed = removableJoins(candidates, parsed.tokens());
+      return removed.isEmpty() ? countQuery : remove(countQuery, removed);
+    } catch (RuntimeException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Count query left as derived: " + countQuery, e);
+      }
+      return countQuery;
+    }
+  }
+
+  private Candidate resolve(
+      HqlParser.JoinContext join, Map<String, ManagedType<?>> aliases, Set<String> fetchPaths) {
+    if (!(join.joinTarget() instanceof HqlParser.JoinPathContext target)) {
+      return new Candidate(join, null, false);
+    }
+
+    String path = target.path().getText();
+    String alias = variable(target.variable());
+    Attribute<?, ?> attribute = attribute(path, aliases);
+    if (attribute != null && alias != null) {
+      ManagedType<?> joined = targetType(attribute);
+      if (joined != null) {
+        aliases.put(alias.toLowerCase(Locale.ROOT), joined);
+      }
+    }
+
+    boolean toOne = attribute instanceof SingularAttribute<?, ?> && attribute.isAssociation();
+    // a join binding a parameter stays, the count query is bound with the same arguments
+    boolean removable =
+        isLeftJoin(join)
+            && (toOne || fetchPaths.contains(path))
+            && !hasParameter(join.joinRestriction());
+    return new Candidate(join, alias, removable);
+  }
+
+  /** Joins to drop, last first so that a join only used by a dropped join is dropped as well. */
+  private static List<Candidate> removableJoins(List<Candidate> candidates, List<Token> tokens) {
+    List<Candidate> removed = new ArrayList<>();
+    boolean changed;
+    do {
+      changed = false;
+      for (int i = candidates.size() - 1; i >= 0; i--) {
+        Candidate candidate = candidates.get(i);
+        if (candidate.removable()
+            && !removed.contains(candidate)
+            && !isReferenced(candidate, tokens, removed)) {
+          removed.add(candidate);
+          changed = true;
+        }
+      }
+    } while (changed);
+    return removed;
+  }
+
+  private static boolean isReferenced(
+      Candidate candidate, List<Token> tokens, List<Candidate> removed) {
+    if (candidate.alias() == null) {
+      return false;
+    }
+
+    for (Token token : tokens) {
+      if (token.getText().equalsIgnoreCase(candidate.alias())
+          && !candidate.contains(token)
+          && removed.stream().noneMatch(join -> join.contains(token))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String remove(String countQuery, List<Candidate> removed) {
+    StringBuilder builder = new StringBuilder(countQuery);
+    removed.stream()
+        .sorted((left, right) -> right.start() - left.start())
+        .forEach(
+            candidate -> {
+              int start = candidate.start();
+              while (start > 0 && Character.isWhitespace(builder.charAt(start - 1))) {
+                start--;
+              }
+              builder.delete(start, candidate.stop() + 1);
+            });
+    return builder.toString();
+  }
+
+  private static Set<String> leftFetchJoinPaths(String query) {
+    Set<String> paths = new HashSet<>();
+    collectLeftFetchJoinPaths(parse(query).statement(), paths);
+    return paths;
+  }
+
+  private static void collectLeftFetchJoinPaths(ParseTree tree, Set<String> paths) {
+    if (tree instanceof HqlParser.JoinContext join
+        && join.FETCH() != null
+        && isLeftJoin(join)
+        && join.joinTarget() instanceof HqlParser.JoinPathContext target) {
+      paths.add(target.path().getText());
+    }
+    for (int i = 0; i < tree.getChildCount(); i++) {
+      collectLeftFetchJoinPaths(tree.getChild(i), paths);
+    }
+  }
+
+  private static boolean hasParameter(@Nullable ParseTree tree) {
+    if (tree == null) {
+      return false;
+    }
+    if (tree instanceof HqlParser.ParameterContext) {
+      return true;
+    }
+    for (int i = 0; i < tree.getChildCount(); i++) {
+      if (hasParameter(tree.getChild(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isLeftJoin(HqlParser.JoinContext join) {
+    return join.joinType() != null && join.joinType().LEFT() != null;
+  }
+
+  @Nullable
+  static HqlParser.QueryContext simpleQuery(HqlParser.StatementContext statement) {
+    if (statement.selectStatement() == null
+        || !(statement.selectStatement().queryExpression()
+            instanceof HqlParser.SimpleQueryGroupContext group)
+        || group.withClause() != null
+        || !(group.orderedQuery() instanceof HqlParser.QuerySpecExpressionContext spec)) {
+      return null;
+    }
+    return spec.query();
+  }
+
+  @Nullable
+  private EntityType<?> entity(String name) {
+    for (EntityType<?> entity : metamodel.getEntities()) {
+      if (entity.getName().equals(name) || entity.getJavaType().getName().equals(name)) {
+        return entity;
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  static Attribute<?, ?> attribute(String path, Map<String, ManagedType<?>> aliases) {
+    String[] segments = path.split("\\.");
+    ManagedType<?> type = aliases.get(segments[0].toLowerCase(Locale.ROOT));
+    if (type == null || segments.length < 2) {
+      return null;
+    }
+
+    Attribute<?, ?> attribute = null;
+    for (int i = 1; i < segments.length; i++) {
+      if (type == null) {
+        return null;
+      }
+      attribute = type.getAttribute(segments[i]);
+      type = i < segments.length - 1 ? targetType(attribute) : null;
+    }
+    return attribute;
+  }
+
+  @Nullable
+  static ManagedType<?> targetType(Attribute<?, ?> attribute) {
+    Type<?> type =
+        attribute instanceof PluralAttribute<?, ?, ?> plural
+            ? plural.getElementType()
+            : attribute instanceof SingularAttribute<?, ?> singular ? singular.getType() : null;
+    return type instanceof ManagedType<?> managedType ? managedType : null;
+  }
+
+  private static void register(
+      Map<String, ManagedType<?>> aliases,
+      @Nullable HqlParser.VariableContext variable,
+      ManagedType<?> type) {
+    String alias = variable(variable);
+    if (alias != null) {
+      aliases.put(alias.toLowerCase(Locale.ROOT), type);
+    }
+  }
+
+  @Nullable
+  static String variable(@Nullable HqlParser.VariableContext variable) {
+    if (variable == null) {
+      return null;
+    }
+    return variable.identifier() != null
+        ? variable.identifier().getText()
+        : variable.nakedIdentifier().getText();
+  }
+
+  static Parsed parse(String query) {
+    CommonTokenStream tokens = new CommonTokenStream(new HqlLexer(CharStreams.fromString(query)));
+    HqlParser parser = new HqlParser(tokens);
+    parser.removeErrorListeners();
+    parser.setErrorHandler(new BailErrorStrategy());
+
+    HqlParser.StatementContext statement = parser.statement();
+    return new Parsed(statement, tokens.getTokens());
+  }
+
+  record Parsed(HqlParser.StatementContext statement, List<Token> tokens) {}
+
+  private record Candidate(ParserRuleContext join, @Nullable String alias, boolean removable) {
+
+    int start() {
+      return join.getStart().getStartIndex();
+    }
+
+    int stop() {
+      return join.getStop().getStopIndex();
+    }
+
+    boolean contains(Token token) {
+      return token.getTokenIndex() >= join.getStart().getTokenIndex()
+          && token.getTokenIndex() <= join.getStop().getTokenIndex();
+    }
+  }
+}
@@ -0,0 +1,400 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.AllTableColumns;
+import net.sf.jsqlparser.statement.select.Distinct;
+import net.sf.jsqlparser.statement.select.FromItem;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import net.sf.jsqlparser.statement.select.Values;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link QueryEnhancer} for native queries backed by JSqlParser. The query is parsed once: the
+ * {@code ORDER BY} position is rendered into a template at construction so sorting is a string
+ * substitution, and count queries are derived from the syntax tree rather than with regular
+ * expressions.
+ *
+ * @author Bao.Ngo
+ */
+public class JSqlParserQueryEnhancer implements QueryEnhancer {
+
+  private static final Log LOG = LogFactory.getLog(JSqlParserQueryEnhancer.class);
+
+  private static final String SORT_PLACEHOLDER = "__htech_sort_placeholder__";
+  private static final String COUNT_QUERY_ALIAS = "count_query";
+
+  private final DeclaredQuery query;
+  private final Statement statement;
+  private final @Nullable String alias;
+  private final String projection;
+  private final Set<String> joinAliases;
+  private final Set<String> selectionAliases;
+  private final @Nullable String sortTemplate;
+
+  private JSqlParserQueryEnhancer(DeclaredQuery query, Statement statement) {
+    this.query = query;
+    this.statement = statement;
+
+    PlainSelect plainSelect = statement instanceof PlainSelect select ? select : null;
+    this.alias =
+        plainSelect == null || plainSelect.getFromItem() == null
+            ? null
+            : nameOf(plainSelect.getFromItem().getAlias());
+    this.projection =
+        plainSelect == null
+            ? ""
+            : plainSelect.getSelectItems().stream()
+                .map(Object::toString)
+                .collect(Collectors.joining(", "));
+    this.joinAliases = plainSelect == null ? Set.of() : joinAliases(plainSelect);
+    this.selectionAliases = plainSelect == null ? Set.of() : selectionAliases(plainSelect);
+    this.sortTemplate =
+        statement instanceof Select select && !(select instanceof Values)
+            ? renderSortTemplate(select)
+            : null;
+  }
+
+  /**
+   * Parses {@code query}, falling back to {@link DefaultQueryEnhancer} when JSqlParser does not
+   * understand the SQL dialect at hand.
+   */
+  public static QueryEnhancer forNative(DeclaredQuery query) {
+    try {
+      return new JSqlParserQueryEnhancer(query, CCJSqlParserUtil.parse(query.getQueryString()));
+    } catch (JSQLParserException e) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(
+            "Cannot parse native query, falling back to regular expressions: "
+                + query.getQueryString(),
+            e);
+      }
+      return new DefaultQueryEnhancer(query);
+    }
+  }
+
+  @Override
+  public String applySorting(Sort sort, @Nullable String alias) {
+    if (sort.isUnsorted() || sortTemplate == null) {
+      return query.getQueryString();
+    }
+
+    String orderClause =
+        sort.stream()
+            .map(order -> QueryUtils.getOrderClause(joinAliases, selectionAliases, alias, order))
+            .collect(Collectors.joining(", "));
+    int index = sortTemplate.lastIndexOf(SORT_PLACEHOLDER);
+    return sortTemplate.substring(0, index)
+        + orderClause
+        + sortTemplate.substring(index + SORT_PLACEHOLDER.length());
+  }
+
+  @Override
+  @Nullable
+  public String detectAlias() {
+    return alias;
+  }
+
+  /**
+   * The count query for this query, without {@code ORDER BY}. Queries with {@code GROUP BY}, {@code
+   * HAVING}, row limits or set operations are counted through a subquery. For {@code DISTINCT}
+   * queries selecting only from the root table, left joins that nothing else refers to are dropped
+   * as they cannot change the number of distinct rows.
+   */
+  @Override
+  public String createCountQueryFor(@Nullable String countProjection) {
+    if (!(statement instanceof Select)) {
+      return query.getQueryString();
+    }
+
+    // the count rewrites the tree, so it works on a copy of its own; it is derived once per method
+    Select select;
+    try {
+      select = (Select) CCJSqlParserUtil.parse(query.getQueryString());
+    } catch (JSQLParserException e) {
+      throw new IllegalStateException("Cannot parse native query " + query.getQueryString(), e);
+    }
+    select.setOrderByElements(null);
+
+    if (!(select instanceof PlainSelect plainSelect)) {
+      return wrapInCount(select);
+    }
+
+    Distinct distinct = plainSelect.getDistinct();
+    if (distinct != null && distinct.getOnSelectItems() == null) {
+      if (selectsFromRootOnly(plainSelect)) {
+        removeUnreferencedLeftJoins(plainSelect);
+      }
+      if (countProjection == null
+          && isSingleColumn(plainSelect)
+          && !isGroupedOrLimited(plainSelect)) {
+        plainSelect.setDistinct(null);
+        plainSelect.setSelectItems(
+            List.of(
+                countItem(
+                    "distinct " + plainSelect.getSelectItems().get(0).getExpression().toString())));
+        return plainSelect.toString();
+      }
+    }
+
+    if (countProjection == null && (distinct != null || isGroupedOrLimited(plainSelect))) {
+      return wrapInCount(plainSelect);
+    }
+
+    plainSelect.setDistinct(null);
+    plainSelect.setSelectItems(
+        List.of(countItem(StringUtils.hasText(countProjection) ? countProjection : "*")));
+    return plainSelect.toString();
+  }
+
+  @Override
+  public String getProjection() {
+    return projection;
+  }
+
+  @Override
+  public Set<String> getJoinAliases() {
+    return joinAliases;
+  }
+
+  @Override
+  public DeclaredQuery getQuery() {
+    return query;
+  }
+
+  private static String renderSortTemplate(Select select) {
+    List<OrderByElement> orderBy = select.getOrderByElements();
+    List<OrderByElement> withPlaceholder =
+        orderBy == null ? new ArrayList<>() : new ArrayList<>(orderBy);
+    OrderByElement placeholder = new OrderByElement();
+    placeholder.setExpression(new Column(SORT_PLACEHOLDER));
+    withPlaceholder.add(placeholder);
+
+    select.setOrderByElements(withPlaceholder);
+    try {
+      return select.toString();
+    } finally {
+      select.setOrderByElements(orderBy);
+    }
+  }
+
+  private static String wrapInCount(Select select) {
+    return "SELECT count(*) FROM (" + select + ") " + COUNT_QUERY_ALIAS;
+  }
+
+  private static boolean isGroupedOrLimited(PlainSelect select) {
+    return select.getGroupBy() != null
+        || select.getHaving() != null
+        || select.getLimit() != null
+        || select.getOffset() != null
+        || select.getFetch() != null
+        || select.getTop() != null
+        || select.getFirst() != null
+        || select.getSkip() != null;
+  }
+
+  private static boolean isSingleColumn(PlainSelect select) {
+    return select.getSelectItems().size() == 1
+        && !(select.getSelectItems().get(0).getExpression() instanceof AllColumns);
+  }
+
+  private static SelectItem<?> countItem(String argument) {
+    try {
+      return SelectItem.from(CCJSqlParserUtil.parseExpression("count(" + argument + ")"));
+    } catch (JSQLParserException e) {
+      throw new IllegalArgumentException("Invalid count projection " + argument, e);
+    }
+  }
+
+  private static boolean selectsFromRootOnly(PlainSelect select) {
+    String root = aliasOf(select.getFromItem());
+    if (root == null || select.getGroupBy() != null || select.getHaving() != null) {
+      return false;
+    }
+    for (SelectItem<?> item : select.getSelectItems()) {
+      if (item.getExpression() instanceof AllTableColumns allTableColumns) {
+        if (!root.equalsIgnoreCase(allTableColumns.getTable().getName())) {
+          return false;
+        }
+      } else if (!(item.getExpression() instanceof Column column)
+          || column.getTable() == null
+          || !root.equalsIgnoreCase(column.getTable().getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Drops {@code LEFT JOIN}s whose table is referenced nowhere but in its own {@code ON} clause.
+   * Only valid for {@code DISTINCT} root selections: such a join can repeat root rows but never
+   * remove one. Any unqualified column keeps the join, as it may belong to the joined table.
+   */
+  private static void removeUnreferencedLeftJoins(PlainSelect select) {
+    if (select.getJoins() == null) {
+      return;
+    }
+
+    List<Join> joins = new ArrayList<>(select.getJoins());
+    boolean removed;
+    do {
+      removed = false;
+      for (int i = joins.size() - 1; i >= 0; i--) {
+        Join join = joins.get(i);
+        String joinAlias = aliasOf(join.getRightItem());
+        if (!join.isLeft()
+            || join.isApply()
+            || joinAlias == null
+            || isReferenced(joinAlias, select, joins, join)) {
+          continue;
+        }
+        joins.remove(i);
+        removed = true;
+      }
+    } while (removed);
+
+    select.setJoins(joins.isEmpty() ? null : joins);
+  }
+
+  /**
+   * Whether anything but the {@code ON} clause of {@code candidate} may refer to {@code joinAlias}.
+   * An unqualified column could belong to the joined table, and so could anything in a subquery or
+   * a derived table, so either keeps the join.
+   */
+  private static boolean isReferenced(
+      String joinAlias, PlainSelect select, List<Join> joins, Join candidate) {
+    ColumnReferences references = new ColumnReferences();
+    for (SelectItem<?> item : select.getSelectItems()) {
+      item.accept(references);
+    }
+    references.visitAll(select.getWhere());
+    references.visitAll(select.getHaving());
+    for (Join join : joins) {
+      if (join == candidate) {
+        continue;
+      }
+      if (!(join.getRightItem() instanceof Table)
+          || (join.getUsingColumns() != null && !join.getUsingColumns().isEmpty())) {
+        return true;
+      }
+      join.getOnExpressions().forEach(references::visitAll);
+    }
+
+    return references.mayReferTo(joinAlias);
+  }
+
+  @Nullable
+  private static String aliasOf(@Nullable FromItem fromItem) {
+    if (fromItem == null) {
+      return null;
+    }
+    Alias alias = fromItem.getAlias();
+    if (alias != null) {
+      return alias.getName();
+    }
+    return fromItem instanceof Table table ? table.getName() : null;
+  }
+
+  @Nullable
+  private static String nameOf(@Nullable Alias alias) {
+    return alias == null ? null : alias.getName();
+  }
+
+  private static Set<String> joinAliases(PlainSelect select) {
+    if (select.getJoins() == null) {
+      return Set.of();
+    }
+
+    Set<String> aliases = new HashSet<>();
+    for (Join join : select.getJoins()) {
+      String joinAlias = aliasOf(join.getRightItem());
+      if (joinAlias != null) {
+        aliases.add(joinAlias);
+      }
+    }
+    return Collections.unmodifiableSet(aliases);
+  }
+
+  private static String unquote(String identifier) {
+    int last = identifier.length() - 1;
+    if (last > 0
+        && (identifier.charAt(0) == '"' && identifier.charAt(last) == '"'
+            || identifier.charAt(0) == '`' && identifier.charAt(last) == '`'
+            || identifier.charAt(0) == '[' && identifier.charAt(last) == ']')) {
+      return identifier.substring(1, last);
+    }
+    return identifier;
+  }
+
+  private static Set<String> selectionAliases(PlainSelect select) {
+    Set<String> aliases = new HashSet<>();
+    for (SelectItem<?> item : select.getSelectItems()) {
+      if (item.getAlias() != null) {
+        aliases.add(item.getAlias().getName());
+      }
+    }
+    return Collections.unmodifiableSet(aliases);
+  }
+
+  /** Collects the table qualifiers of the columns of the expressions it visits. */
+  private static class ColumnReferences extends ExpressionVisitorAdapter {
+
+    private final Set<String> qualifiers = new HashSet<>();
+    private boolean opaque;
+
+    void visitAll(@Nullable Expression expression) {
+      if (expression != null) {
+        expression.accept(this);
+      }
+    }
+
+    boolean mayReferTo(String alias) {
+      return opaque || qualifiers.contains(unquote(alias).toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void visit(Column column) {
+      Table table = column.getTable();
+      if (table != null && table.getName() != null) {
+        qualifiers.add(unquote(table.getName()).toLowerCase(Locale.ROOT));
+      } else if (!"true".equalsIgnoreCase(column.getColumnName())
+          && !"false".equalsIgnoreCase(column.getColumnName())) {
+        // boolean literals are parsed as columns
+        opaque = true;
+      }
+    }
+
+    @Override
+    public void visit(ParenthesedSelect select) {
+      opaque = true;
+    }
+
+    @Override
+    public void visit(Select select) {
+      opaque = true;
+    }
+  }
+}
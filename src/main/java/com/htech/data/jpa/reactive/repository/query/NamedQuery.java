@@ -36,6 +36,7 @@ public class NamedQuery extends AbstractReactiveJpaQuery {
 
   private boolean namedCountQueryIsPresent;
   private DeclaredQuery declaredQuery;
+  private @Nullable String derivedCountQueryString;
 
   private boolean fullyInitialized;
 
@@ -101,11 +102,6 @@ public class NamedQuery extends AbstractReactiveJpaQuery {
       return null;
     }
 
-    if (method.isScrollQuery()) {
-      throw QueryCreationException.create(
-          method, "Scroll queries are not supported using String-based queries");
-    }
-
     try {
 
       RepositoryQuery query = new NamedQuery(method, sessionFactory, emf);
@@ -179,10 +175,8 @@ public class NamedQuery extends AbstractReactiveJpaQuery {
                 cacheKey = countQueryName;
                 countQuery = s.createNamedQuery(countQueryName, Long.class);
               } else {
-                String countQueryString =
-                    declaredQuery.deriveCountQuery(null, countProjection).getQueryString();
-                cacheKey = countQueryString;
-                countQuery = s.createQuery(countQueryString, Long.class);
+                cacheKey = derivedCountQueryString;
+                countQuery = s.createQuery(derivedCountQueryString, Long.class);
               }
 
               QueryParameterSetter.QueryMetadata metadata =
@@ -266,6 +260,13 @@ public class NamedQuery extends AbstractReactiveJpaQuery {
         throw QueryCreationException.create(method, CANNOT_EXTRACT_QUERY);
       }
 
+      if (needToCreateCountQuery) {
+        this.derivedCountQueryString =
+            countQueryOptimizer.optimize(
+                queryString,
+                declaredQuery.deriveCountQuery(null, countProjection).getQueryString());
+      }
+
       fullyInitialized = true;
     } finally {
       lock.unlock();
@@ -38,7 +38,10 @@ public class NativeReactiveJpaQuery extends AbstractStringBasedReactiveJpaQuery
 
     Parameters<?, ?> parameters = method.getParameters();
 
-    if (parameters.hasSortParameter() && !queryString.contains("#sort")) {
+    // a parsed query places the ORDER BY itself, the regular expression fallback cannot
+    if (parameters.hasSortParameter()
+        && !queryString.contains("#sort")
+        && getQueryEnhancer() instanceof DefaultQueryEnhancer) {
       throw new InvalidJpaQueryMethodException(
           "Cannot use native queries with dynamic sorting in method " + method);
     }
@@ -31,6 +31,20 @@ public class ParameterBinderFactory {
     return new ParameterBinder(parameters, createSetters(bindings, setterFactory));
   }
 
+  static ParameterBinder createHqlBinder(
+      ReactiveJpaParameters parameters,
+      List<ParameterMetadataProvider.ParameterMetadata<?>> metadata) {
+
+    Assert.notNull(parameters, "ReactiveJpaParameters must not be null");
+    Assert.notNull(metadata, "Parameter metadata must not be null");
+
+    QueryParameterSetterFactory setterFactory =
+        QueryParameterSetterFactory.forHqlQuery(parameters, metadata);
+    List<ParameterBinding> bindings = getBindings(parameters);
+
+    return new ParameterBinder(parameters, createSetters(bindings, setterFactory));
+  }
+
   static ParameterBinder createQueryAwareBinder(
       ReactiveJpaParameters parameters,
       DeclaredQuery query,
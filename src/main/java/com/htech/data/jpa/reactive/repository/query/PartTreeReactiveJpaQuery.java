@@ -4,10 +4,13 @@ import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
 import java.util.List;
 import org.hibernate.reactive.stage.Stage;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.OffsetScrollPosition;
 import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.query.*;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaMetamodelEntityInformation;
 import org.springframework.data.repository.query.ResultProcessor;
 import org.springframework.data.repository.query.ReturnedType;
@@ -15,6 +18,7 @@ import org.springframework.data.repository.query.parser.Part;
 import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.data.util.Streamable;
 import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
@@ -97,6 +101,11 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
       return new ReactiveJpaQueryExecution.DeleteExecution(sessionFactory);
     } else if (this.tree.isExistsProjection()) {
       return new ReactiveJpaQueryExecution.ExistsExecution();
+    } else if (getQueryMethod().isScrollQuery()) {
+      return new ReactiveJpaQueryExecution.ScrollExecution(
+          this.tree.getSort(), new ReactiveScrollDelegate<>(entityInformation));
+    } else if (getQueryMethod().isCollectionQuery() && dataProperties.getStreaming().isEnabled()) {
+      return new StreamExecution(dataProperties.getStreaming().getFetchSize());
     }
 
     return super.getExecution();
@@ -161,55 +170,48 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
     return type == Part.Type.IN || type == Part.Type.NOT_IN;
   }
 
+  /**
+   * Creates the queries of a derived method. Unless the query depends on the arguments, it is
+   * rendered to HQL once, so every call shares Hibernate's cached interpretation of the string. A
+   * dynamic sort, projection or scroll position and {@code null} arguments, which turn into {@code
+   * IS NULL}, get a criteria query of their own per call.
+   */
   abstract class QueryPreparer<C extends CommonAbstractCriteria> {
 
-    protected final @Nullable C cachedCriteria;
+    protected final @Nullable ReactiveJpaHqlQueryCreator.HqlQuery cachedQuery;
     protected final @Nullable ParameterBinder cachedParameterBinder;
     protected final QueryParameterSetter.QueryMetadataCache metadataCache =
         new QueryParameterSetter.QueryMetadataCache();
 
     QueryPreparer(boolean recreateQueries) {
-      AbstractQueryCreator<C, Predicate> creator = createCreator(null);
-
       if (recreateQueries) {
-        this.cachedCriteria = null;
+        this.cachedQuery = null;
         this.cachedParameterBinder = null;
       } else {
-        this.cachedCriteria = creator.createQuery();
-        this.cachedParameterBinder = getBinder(creator.getParameterExpressions());
+        ReactiveJpaHqlQueryCreator creator = createHqlCreator();
+        this.cachedQuery = creator.createQuery();
+        this.cachedParameterBinder =
+            ParameterBinderFactory.createHqlBinder(parameters, creator.getParameterExpressions());
       }
     }
 
     public Mono<Stage.AbstractQuery> createQuery(
         Mono<Stage.Session> session, ReactiveJpaParametersParameterAccessor accessor) {
-      //      C criteriaQuery = cachedCriteria;
-      //      ParameterBinder parameterBinder = cachedParameterBinder;
-
       return Mono.just(accessor)
           .zipWhen(
               a -> {
-                C criteriaQuery = cachedCriteria;
-                ParameterBinder parameterBinder = cachedParameterBinder;
-                if (cachedCriteria == null || accessor.hasBindableNullValue()) {
-                  AbstractQueryCreator<C, ?> creator = createCreator(accessor);
-                  criteriaQuery = creator.createQuery(getDynamicSort(accessor));
-                  List<ParameterMetadataProvider.ParameterMetadata<?>> expressions =
-                      creator.getParameterExpressions();
-                  parameterBinder = getBinder(expressions);
-                }
-
-                if (parameterBinder == null) {
-                  return Mono.error(() -> new IllegalStateException("ParameterBinder is null"));
+                if (cachedQuery != null
+                    && cachedParameterBinder != null
+                    && !accessor.hasBindableNullValue()) {
+                  return session.map(
+                      s -> Tuples.of(createQuery(s, cachedQuery), cachedParameterBinder));
                 }
 
-                return Mono.zip(session, Mono.just(criteriaQuery), Mono.just(parameterBinder));
+                AbstractQueryCreator<C, ?> creator = createCreator(accessor);
+                C criteriaQuery = creator.createQuery(getDynamicSort(accessor));
+                ParameterBinder parameterBinder = getBinder(creator.getParameterExpressions());
+                return session.map(s -> Tuples.of(createQuery(s, criteriaQuery), parameterBinder));
               })
-          .map(
-              tuple ->
-                  Tuples.of(
-                      tuple.getT1(),
-                      createQuery(tuple.getT2().getT1(), tuple.getT2().getT2()),
-                      tuple.getT2().getT3()))
           .flatMap(
               tuple -> {
                 ReactiveJpaParametersParameterAccessor acs = tuple.getT1();
@@ -217,32 +219,10 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
                     acs.getParameters().hasScrollPositionParameter()
                         ? acs.getScrollPosition()
                         : null;
-                return invokeBinding(tuple.getT3(), tuple.getT2(), acs, this.metadataCache)
+                return invokeBinding(
+                        tuple.getT2().getT2(), tuple.getT2().getT1(), acs, this.metadataCache)
                     .map(query -> restrictMaxResultsIfNecessary(query, scrollPosition));
               });
-
-      //      if (cachedCriteria == null || accessor.hasBindableNullValue()) {
-      //        AbstractQueryCreator<C, ?> creator = createCreator(accessor);
-      //        criteriaQuery = creator.createQuery(getDynamicSort(accessor));
-      //        List<ParameterMetadataProvider.ParameterMetadata<?>> expressions =
-      //            creator.getParameterExpressions();
-      //        parameterBinder = getBinder(expressions);
-      //      }
-      //
-      //      if (parameterBinder == null) {
-      //        throw new IllegalStateException("ParameterBinder is null");
-      //      }
-      //
-      //      // TODO
-      //      Stage.AbstractQuery query = createQuery(session, criteriaQuery);
-      //
-      //      ScrollPosition scrollPosition =
-      //          accessor.getParameters().hasScrollPositionParameter()
-      //              ? accessor.getScrollPosition()
-      //              : null;
-      //      return restrictMaxResultsIfNecessary(
-      //          invokeBinding(parameterBinder, query, accessor, this.metadataCache),
-      // scrollPosition);
     }
 
     @SuppressWarnings("ConstantConditions")
@@ -250,7 +230,7 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
         Stage.AbstractQuery query, @Nullable ScrollPosition scrollPosition) {
       Stage.SelectionQuery tmp = (Stage.SelectionQuery) query;
       if (scrollPosition instanceof OffsetScrollPosition offset) {
-        tmp.setFirstResult(Math.toIntExact(offset.getOffset()));
+        tmp.setFirstResult(ReactiveScrollDelegate.getFirstResult(offset));
       }
 
       if (tree.isLimiting()) {
@@ -279,6 +259,20 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
 
     protected abstract Stage.AbstractQuery createQuery(Stage.Session session, C criteria);
 
+    protected Stage.AbstractQuery createQuery(
+        Stage.Session session, ReactiveJpaHqlQueryCreator.HqlQuery query) {
+      return session.createQuery(query.query(), query.resultType());
+    }
+
+    protected ReactiveJpaHqlQueryCreator createHqlCreator() {
+      return new ReactiveJpaHqlQueryCreator(
+          tree,
+          getQueryMethod().getResultProcessor().getReturnedType(),
+          sessionFactory.getMetamodel(),
+          new ParameterMetadataProvider(sessionFactory.getCriteriaBuilder(), parameters, escape),
+          false);
+    }
+
     protected AbstractQueryCreator<C, Predicate> createCreator(
         @Nullable JpaParametersParameterAccessor accessor) {
       CriteriaBuilder builder = sessionFactory.getCriteriaBuilder();
@@ -295,6 +289,14 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
         returnedType = processor.getReturnedType();
       }
 
+      if (accessor != null
+          && accessor.getParameters().hasScrollPositionParameter()
+          && accessor.getScrollPosition() instanceof KeysetScrollPosition keyset) {
+        return (AbstractQueryCreator<C, Predicate>)
+            new ReactiveJpaKeysetScrollQueryCreator(
+                tree, returnedType, builder, provider, entityInformation, keyset);
+      }
+
       return (AbstractQueryCreator<C, Predicate>)
           new ReactiveJpaCriteriaQueryCreator(tree, returnedType, builder, provider);
     }
@@ -315,11 +317,119 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
       return ParameterBinderFactory.createCriteriaBinder(parameters, expressions);
     }
 
-    private Sort getDynamicSort(JpaParametersParameterAccessor accessor) {
+    /**
+     * A query reading one window of a streamed result: seeking past {@code keyset} when given,
+     * ordered by the method's sort and the id otherwise so that offset windows are stable.
+     */
+    @SuppressWarnings("unchecked")
+    Mono<Stage.SelectionQuery<Object>> createWindowQuery(
+        Stage.Session session,
+        ReactiveJpaParametersParameterAccessor accessor,
+        @Nullable KeysetScrollPosition keyset) {
+      CriteriaBuilder builder = sessionFactory.getCriteriaBuilder();
+      ParameterMetadataProvider provider = new ParameterMetadataProvider(builder, accessor, escape);
+      ReturnedType returnedType =
+          getQueryMethod().getResultProcessor().withDynamicProjection(accessor).getReturnedType();
+      Sort dynamicSort = getDynamicSort(accessor);
+
+      ReactiveJpaCriteriaQueryCreator creator;
+      if (keyset == null) {
+        creator = new ReactiveJpaCriteriaQueryCreator(tree, returnedType, builder, provider);
+        dynamicSort = dynamicSort.and(getIdTiebreaker(tree.getSort().and(dynamicSort)));
+      } else {
+        creator =
+            new ReactiveJpaKeysetScrollQueryCreator(
+                tree, returnedType, builder, provider, entityInformation, keyset);
+      }
 
-      return parameters.potentiallySortsDynamically() //
-          ? accessor.getSort() //
-          : Sort.unsorted();
+      CriteriaQuery<?> criteria = creator.createQuery(dynamicSort);
+      return invokeBinding(
+              getBinder(creator.getParameterExpressions()),
+              session.createQuery(criteria),
+              accessor,
+              metadataCache)
+          .map(query -> (Stage.SelectionQuery<Object>) restrictMaxResultsIfNecessary(query, null));
+    }
+  }
+
+  private Sort getDynamicSort(JpaParametersParameterAccessor accessor) {
+
+    return parameters.potentiallySortsDynamically() //
+        ? accessor.getSort() //
+        : Sort.unsorted();
+  }
+
+  /** The id orders {@code sort} lacks to be unique. */
+  private Sort getIdTiebreaker(Sort sort) {
+    return Sort.by(
+        KeysetScrollSpecification.createSort(ScrollPosition.keyset(), sort, entityInformation)
+            .stream()
+            .filter(order -> sort.getOrderFor(order.getProperty()) == null)
+            .toList());
+  }
+
+  /**
+   * Streams a derived query window by window. Keyset windows are used when the order is made of
+   * mandatory values and the method returns entities; other queries are read in offset windows
+   * ordered by the method's sort and the id.
+   */
+  private class StreamExecution extends ReactiveJpaQueryExecution {
+
+    private final int fetchSize;
+
+    StreamExecution(int fetchSize) {
+      this.fetchSize = fetchSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Publisher<?> doExecute(
+        Mono<Stage.AbstractQuery> ignored,
+        AbstractReactiveJpaQuery reactiveJpaQuery,
+        ReactiveJpaParametersParameterAccessor accessor,
+        Mono<Stage.Session> session) {
+      QueryPreparer<?> preparer = query;
+      Class<?> domainType = entityInformation.getJavaType();
+      Sort sort = tree.getSort().and(getDynamicSort(accessor));
+      Sort uniqueSort = sort.and(getIdTiebreaker(sort));
+      boolean keyset =
+          accessor.getPageable().isUnpaged()
+              && !getQueryMethod()
+                  .getResultProcessor()
+                  .withDynamicProjection(accessor)
+                  .getReturnedType()
+                  .isProjecting()
+              && QueryStreamUtils.supportsKeyset(
+                  uniqueSort, sessionFactory.getMetamodel().entity(domainType));
+
+      Flux<?> rows =
+          session.flatMapMany(
+              s -> {
+                if (!keyset) {
+                  return preparer
+                      .createWindowQuery(s, accessor, null)
+                      .flatMapMany(q -> QueryStreamUtils.stream(s, q, fetchSize, domainType));
+                }
+
+                List<String> keys = uniqueSort.stream().map(Sort.Order::getProperty).toList();
+                JpaEntityInformation<Object, ?> information =
+                    (JpaEntityInformation<Object, ?>) entityInformation;
+                Flux<Object> results =
+                    QueryStreamUtils.streamKeyset(
+                        s,
+                        position ->
+                            preparer
+                                .createWindowQuery(s, accessor, position)
+                                .flatMap(
+                                    q ->
+                                        Mono.fromCompletionStage(
+                                            q.setMaxResults(fetchSize).getResultList())),
+                        row -> ScrollPosition.forward(information.getKeyset(keys, row)),
+                        fetchSize,
+                        domainType);
+                return tree.isLimiting() ? results.take(tree.getMaxResults()) : results;
+              });
+      return reactiveJpaQuery.maybeCallAfterLoad(rows, accessor);
     }
   }
 
@@ -331,12 +441,6 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
 
     @Override
     protected Stage.AbstractQuery createQuery(Stage.Session session, CriteriaQuery<?> criteria) {
-      if (this.cachedCriteria != null) {
-        synchronized (this.cachedCriteria) {
-          return session.createQuery(criteria);
-        }
-      }
-
       return session.createQuery(criteria);
     }
 
@@ -357,6 +461,16 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
           tree, getQueryMethod().getResultProcessor().getReturnedType(), builder, provider);
     }
 
+    @Override
+    protected ReactiveJpaHqlQueryCreator createHqlCreator() {
+      return new ReactiveJpaHqlQueryCreator(
+          tree,
+          getQueryMethod().getResultProcessor().getReturnedType(),
+          sessionFactory.getMetamodel(),
+          new ParameterMetadataProvider(sessionFactory.getCriteriaBuilder(), parameters, escape),
+          true);
+    }
+
     @Override
     protected Mono<Stage.AbstractQuery> invokeBinding(
         ParameterBinder binder,
@@ -378,12 +492,6 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
 
     @Override
     protected Stage.AbstractQuery createQuery(Stage.Session session, CriteriaQuery<?> criteria) {
-      if (this.cachedCriteria != null) {
-        synchronized (this.cachedCriteria) {
-          return session.createQuery(criteria);
-        }
-      }
-
       return session.createQuery(criteria);
     }
   }
@@ -414,15 +522,15 @@ public class PartTreeReactiveJpaQuery extends AbstractReactiveJpaQuery {
     @Override
     protected Stage.AbstractQuery createQuery(
         Stage.Session session, CriteriaDelete<?> criteriaQuery) {
-      if (this.cachedCriteria != null) {
-        synchronized (this.cachedCriteria) {
-          return session.createQuery(criteriaQuery);
-        }
-      }
-
       return session.createQuery(criteriaQuery);
     }
 
+    @Override
+    protected Stage.AbstractQuery createQuery(
+        Stage.Session session, ReactiveJpaHqlQueryCreator.HqlQuery query) {
+      return session.createMutationQuery(query.query());
+    }
+
     @Override
     protected Stage.AbstractQuery restrictMaxResultsIfNecessary(
         Stage.AbstractQuery query, ScrollPosition scrollPosition) {
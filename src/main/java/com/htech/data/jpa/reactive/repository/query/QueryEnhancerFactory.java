@@ -23,15 +23,12 @@ public class QueryEnhancerFactory {
   private QueryEnhancerFactory() {}
 
   public static QueryEnhancer forQuery(DeclaredQuery query) {
-    // TODO
     if (query.isNativeQuery()) {
-      return new DefaultQueryEnhancer(query);
+      return jSqlParserPresent
+          ? JSqlParserQueryEnhancer.forNative(query)
+          : new DefaultQueryEnhancer(query);
     }
 
-    try {
-      return ReactiveJpaQueryEnhancer.forHql(query);
-    } catch (Exception e) {
-      throw new RuntimeException(e.getMessage(), e);
-    }
+    return ReactiveJpaQueryEnhancer.forHql(query);
   }
 }
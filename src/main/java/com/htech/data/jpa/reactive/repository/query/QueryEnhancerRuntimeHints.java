@@ -0,0 +1,30 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.lang.Nullable;
+
+/**
+ * Keeps the query parsers bound by {@link ReactiveJpaQueryEnhancer} reachable in native images.
+ *
+ * @author Bao.Ngo
+ */
+public class QueryEnhancerRuntimeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
+    hints
+        .reflection()
+        .registerType(
+            TypeReference.of(ReactiveJpaQueryEnhancer.JPQL_PARSER),
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+        .registerType(
+            TypeReference.of(ReactiveJpaQueryEnhancer.HQL_PARSER),
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+        .registerType(
+            TypeReference.of(ReactiveJpaQueryEnhancer.PARSER_SUPPORT),
+            MemberCategory.INVOKE_DECLARED_METHODS);
+  }
+}
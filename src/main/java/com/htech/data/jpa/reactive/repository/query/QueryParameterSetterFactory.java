@@ -2,6 +2,7 @@ package com.htech.data.jpa.reactive.repository.query;
 
 import jakarta.persistence.TemporalType;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.query.JpaParametersParameterAccessor;
 import org.springframework.data.repository.query.Parameter;
 import org.springframework.data.repository.query.Parameters;
@@ -10,6 +11,7 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
 
 /**
  * @author Bao.Ngo
@@ -36,6 +38,16 @@ public abstract class QueryParameterSetterFactory {
         parameters, metadata);
   }
 
+  static QueryParameterSetterFactory forHqlQuery(
+      ReactiveJpaParameters parameters,
+      List<ParameterMetadataProvider.ParameterMetadata<?>> metadata) {
+
+    Assert.notNull(parameters, "JpaParameters must not be null");
+    Assert.notNull(metadata, "ParameterMetadata must not be null");
+
+    return new QueryParameterSetterFactory.HqlQueryParameterSetterFactory(parameters, metadata);
+  }
+
   static QueryParameterSetterFactory parsing(
       SpelExpressionParser parser,
       ReactiveQueryMethodEvaluationContextProvider evaluationContextProvider,
@@ -262,12 +274,19 @@ public abstract class QueryParameterSetterFactory {
           parameter.isTemporalParameter() ? parameter.getRequiredTemporalType() : null;
 
       return new QueryParameterSetter.NamedOrIndexedQueryParameterSetter(
-          new BasicParameterValueEvaluator(parameter),
+          accessor ->
+              Mono.just(accessor)
+                  .map(a -> Optional.ofNullable(getAndPrepare(parameter, metadata, a))),
           binding,
-          metadata.getExpression(),
+          parameter(parameterIndex, metadata),
           temporalType);
     }
 
+    jakarta.persistence.Parameter<?> parameter(
+        int parameterIndex, ParameterMetadataProvider.ParameterMetadata<?> metadata) {
+      return metadata.getExpression();
+    }
+
     @Nullable
     private Object getAndPrepare(
         ReactiveJpaParameters.JpaParameter parameter,
@@ -277,6 +296,24 @@ public abstract class QueryParameterSetterFactory {
     }
   }
 
+  /** Binds the positional parameters {@link ReactiveJpaHqlQueryCreator} renders. */
+  private static class HqlQueryParameterSetterFactory extends CriteriaQueryParameterSetterFactory {
+
+    HqlQueryParameterSetterFactory(
+        ReactiveJpaParameters parameters,
+        List<ParameterMetadataProvider.ParameterMetadata<?>> metadata) {
+      super(parameters, metadata);
+    }
+
+    @Override
+    jakarta.persistence.Parameter<?> parameter(
+        int parameterIndex, ParameterMetadataProvider.ParameterMetadata<?> metadata) {
+      return new ParameterImpl<>(
+          ParameterBinding.BindingIdentifier.of(parameterIndex + 1),
+          metadata.getExpression().getJavaType());
+    }
+  }
+
   static class ParameterImpl<T> implements jakarta.persistence.Parameter<T> {
 
     private final ParameterBinding.BindingIdentifier identifier;
@@ -0,0 +1,237 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import org.hibernate.grammars.hql.HqlParser;
+import org.hibernate.reactive.stage.Stage;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads query results in windows of {@code fetchSize} rows. Hibernate Reactive does not expose
+ * database cursors, so every window is its own round trip that is only issued once the previous one
+ * has been consumed. Keyset windows seek past the last row read; offset windows re-run the query
+ * with {@code setFirstResult} and need a unique order to neither skip nor repeat rows.
+ *
+ * @author Bao.Ngo
+ */
+public class QueryStreamUtils {
+
+  private QueryStreamUtils() {}
+
+  /**
+   * Reads keyset windows: {@code windowReader} returns at most {@code fetchSize} rows following the
+   * given position, {@code positionOf} the position of a row read.
+   */
+  public static <T> Flux<T> streamKeyset(
+      Stage.Session session,
+      Function<KeysetScrollPosition, Mono<List<T>>> windowReader,
+      Function<T, KeysetScrollPosition> positionOf,
+      int fetchSize,
+      @Nullable Class<?> detachType) {
+    Assert.notNull(session, "Session must not be null");
+    Assert.isTrue(fetchSize > 0, "Fetch size must be greater than zero");
+
+    Function<KeysetScrollPosition, Mono<List<T>>> read =
+        position ->
+            Mono.defer(() -> windowReader.apply(position))
+                .doOnNext(window -> detach(session, window, detachType));
+
+    return read.apply(ScrollPosition.keyset())
+        .expand(
+            window ->
+                window.size() < fetchSize
+                    ? Mono.empty()
+                    : read.apply(positionOf.apply(window.get(window.size() - 1))))
+        .flatMapIterable(Function.identity(), 1);
+  }
+
+  /**
+   * Whether keyset windows over {@code sort} read every row: all sort keys are mandatory basic
+   * values, as rows with a {@code null} key never match the seek predicate, and are compared as
+   * they are rather than case-insensitively.
+   */
+  public static boolean supportsKeyset(Sort sort, ManagedType<?> domainType) {
+    for (Sort.Order order : sort) {
+      if (order.isIgnoreCase()) {
+        return false;
+      }
+
+      ManagedType<?> type = domainType;
+      Type<?> keyType = null;
+      for (String segment : order.getProperty().split("\\.")) {
+        if (!(attribute(type, segment) instanceof SingularAttribute<?, ?> attribute)
+            || attribute.isOptional()) {
+          return false;
+        }
+        keyType = attribute.getType();
+        type = keyType instanceof ManagedType<?> managedType ? managedType : null;
+      }
+
+      // embedded ids and other composite keys can't be compared as a whole
+      if (keyType == null || keyType.getPersistenceType() != Type.PersistenceType.BASIC) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether offset windows over the JPQL {@code query} are stable once it is ordered by the id of
+   * {@code domainType}: the query selects its only root, an entity of that type aliased {@code
+   * alias}, and fetch joins no collection, which would spread an entity over several rows.
+   */
+  public static boolean supportsOffsetWindows(
+      String query, @Nullable String alias, EntityType<?> domainType) {
+    if (alias == null) {
+      return false;
+    }
+
+    try {
+      HqlParser.QueryContext spec =
+          CountQueryOptimizer.simpleQuery(CountQueryOptimizer.parse(query).statement());
+      if (spec == null
+          || spec.fromClause() == null
+          || spec.groupByClause() != null
+          || spec.fromClause().entityWithJoins().size() != 1) {
+        return false;
+      }
+
+      HqlParser.EntityWithJoinsContext from = spec.fromClause().entityWithJoins(0);
+      if (!(from.fromRoot() instanceof HqlParser.RootEntityContext root)
+          || !alias.equalsIgnoreCase(CountQueryOptimizer.variable(root.variable()))
+          || !isEntity(root.entityName().getText(), domainType)) {
+        return false;
+      }
+
+      if (spec.selectClause() != null) {
+        List<HqlParser.SelectionContext> selections =
+            spec.selectClause().selectionList().selection();
+        if (selections.size() != 1
+            || !selections.get(0).selectExpression().getText().equalsIgnoreCase(alias)) {
+          return false;
+        }
+      }
+
+      Map<String, ManagedType<?>> aliases = new HashMap<>();
+      aliases.put(alias.toLowerCase(Locale.ROOT), domainType);
+      for (HqlParser.JoinContext join : from.join()) {
+        if (!(join.joinTarget() instanceof HqlParser.JoinPathContext target)) {
+          if (join.FETCH() != null) {
+            return false;
+          }
+          continue;
+        }
+
+        Attribute<?, ?> attribute = CountQueryOptimizer.attribute(target.path().getText(), aliases);
+        if (join.FETCH() != null && !(attribute instanceof SingularAttribute<?, ?>)) {
+          return false;
+        }
+
+        String joinAlias = CountQueryOptimizer.variable(target.variable());
+        ManagedType<?> joined =
+            attribute != null ? CountQueryOptimizer.targetType(attribute) : null;
+        if (joinAlias != null && joined != null) {
+          aliases.put(joinAlias.toLowerCase(Locale.ROOT), joined);
+        }
+      }
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static boolean isEntity(String name, EntityType<?> entity) {
+    return entity.getName().equals(name) || entity.getJavaType().getName().equals(name);
+  }
+
+  @Nullable
+  private static Attribute<?, ?> attribute(@Nullable ManagedType<?> type, String name) {
+    if (type == null) {
+      return null;
+    }
+    for (Attribute<?, ?> attribute : type.getAttributes()) {
+      if (attribute.getName().equals(name)) {
+        return attribute;
+      }
+    }
+    return null;
+  }
+
+  public static <T> Flux<T> stream(
+      Stage.Session session,
+      Stage.SelectionQuery<T> query,
+      int fetchSize,
+      @Nullable Class<?> detachType) {
+    Assert.notNull(session, "Session must not be null");
+    Assert.notNull(query, "Query must not be null");
+    Assert.isTrue(fetchSize > 0, "Fetch size must be greater than zero");
+
+    long firstResult = query.getFirstResult();
+    long maxResults = query.getMaxResults();
+    long end =
+        maxResults == Integer.MAX_VALUE
+            ? Long.MAX_VALUE
+            : Math.min(firstResult + maxResults, Integer.MAX_VALUE);
+
+    return Flux.<Long, Long>generate(
+            () -> firstResult,
+            (offset, sink) -> {
+              if (offset >= end) {
+                sink.complete();
+              } else {
+                sink.next(offset);
+              }
+              return offset + fetchSize;
+            })
+        .concatMap(
+            offset ->
+                fetchWindow(
+                    session,
+                    query,
+                    Math.toIntExact(offset),
+                    (int) Math.min(fetchSize, end - offset),
+                    detachType),
+            1)
+        .takeUntil(window -> window.size() < fetchSize)
+        .flatMapIterable(Function.identity(), 1);
+  }
+
+  private static <T> Mono<List<T>> fetchWindow(
+      Stage.Session session,
+      Stage.SelectionQuery<T> query,
+      int offset,
+      int size,
+      @Nullable Class<?> detachType) {
+    return Mono.defer(
+            () ->
+                Mono.fromCompletionStage(
+                    query.setFirstResult(offset).setMaxResults(size).getResultList()))
+        .doOnNext(window -> detach(session, window, detachType));
+  }
+
+  private static void detach(Stage.Session session, List<?> window, @Nullable Class<?> detachType) {
+    if (detachType == null) {
+      return;
+    }
+
+    for (Object e : window) {
+      if (detachType.isInstance(e) && session.contains(e)) {
+        session.detach(e);
+      }
+    }
+  }
+}
@@ -29,6 +29,11 @@ public class QueryUtils {
   public static final String COUNT_QUERY_STRING = "select count(%s) from %s x";
   public static final String DELETE_ALL_QUERY_STRING = "delete from %s x";
   public static final String DELETE_ALL_QUERY_BY_ID_STRING = "delete from %s x where %s in :ids";
+  public static final String DELETE_BY_ID_QUERY_STRING = "delete from %s x where x.%s = :id";
+  public static final String DELETE_BY_ID_AND_VERSION_QUERY_STRING =
+      DELETE_BY_ID_QUERY_STRING + " and x.%s = :version";
+  public static final String EXISTS_QUERY_STRING = "select 1 from %s x";
+  public static final String READ_ALL_QUERY_STRING = "select x from %s x";
 
   // Used Regex/Unicode categories (see
   // https://www.unicode.org/reports/tr18/#General_Category_Property):
@@ -163,6 +168,49 @@ public class QueryUtils {
     return String.format(COUNT_QUERY_STRING, countQueryPlaceHolder, entityName) + whereClause;
   }
 
+  public static String getProjectionExistsQueryString(
+      String entityName, Iterable<String> idAttributes) {
+
+    String whereClause =
+        Streamable.of(idAttributes).stream() //
+            .map(
+                idAttribute ->
+                    String.format(EQUALS_CONDITION_STRING, "x", idAttribute, idAttribute)) //
+            .collect(Collectors.joining(" AND ", " WHERE ", ""));
+
+    return String.format(EXISTS_QUERY_STRING, entityName) + whereClause;
+  }
+
+  /**
+   * Renders {@code select x from Entity x where (x.a, x.b) in ((:id_0_0, :id_0_1), ...)} for {@code
+   * idCount} composite ids. Dialects without row value constructors in {@code IN} lists get the
+   * equivalent disjunction from the SQL translator.
+   */
+  public static String getCompositeIdInQueryString(
+      String entityName, List<String> idAttributes, int idCount) {
+
+    Assert.notEmpty(idAttributes, "Id attributes must not be empty");
+    Assert.isTrue(idCount > 0, "Id count must be greater than zero");
+
+    StringJoiner tuple = new StringJoiner(", ", "(", ")");
+    idAttributes.forEach(idAttribute -> tuple.add("x." + idAttribute));
+
+    StringJoiner values = new StringJoiner(", ", "(", ")");
+    for (int i = 0; i < idCount; i++) {
+      StringJoiner value = new StringJoiner(", ", "(", ")");
+      for (int j = 0; j < idAttributes.size(); j++) {
+        value.add(":" + getCompositeIdParameterName(i, j));
+      }
+      values.add(value.toString());
+    }
+
+    return String.format(READ_ALL_QUERY_STRING, entityName) + " where " + tuple + " in " + values;
+  }
+
+  public static String getCompositeIdParameterName(int idIndex, int attributeIndex) {
+    return "id_" + idIndex + "_" + attributeIndex;
+  }
+
   public static String getQueryString(String template, String entityName) {
 
     Assert.hasText(entityName, "Entity name must not be null or empty");
@@ -202,7 +250,7 @@ public class QueryUtils {
     return builder.toString();
   }
 
-  private static boolean hasOrderByClause(String query) {
+  static boolean hasOrderByClause(String query) {
     return countOccurrences(ORDER_BY, query)
         > countOccurrences(ORDER_BY_IN_WINDOW_OR_SUBSELECT, query);
   }
@@ -217,7 +265,7 @@ public class QueryUtils {
     return occurrences;
   }
 
-  private static String getOrderClause(
+  static String getOrderClause(
       Set<String> joinAliases,
       Set<String> selectionAlias,
       @Nullable String alias,
@@ -593,6 +641,17 @@ public class QueryUtils {
       return false;
     }
 
+    return requiresOuterJoin(attribute, isLeafProperty, isForSelection, hasRequiredOuterJoin);
+  }
+
+  /**
+   * Whether navigating {@code attribute} needs an outer join, independent of any criteria query.
+   */
+  static boolean requiresOuterJoin(
+      Attribute<?, ?> attribute,
+      boolean isLeafProperty,
+      boolean isForSelection,
+      boolean hasRequiredOuterJoin) {
     // not a persistent attribute type association (@OneToOne, @ManyToOne)
     if (!ASSOCIATION_TYPES.containsKey(attribute.getPersistentAttributeType())) {
       return false;
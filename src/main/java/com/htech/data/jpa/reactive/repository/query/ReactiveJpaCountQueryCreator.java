@@ -37,7 +37,9 @@ public class ReactiveJpaCountQueryCreator extends ReactiveJpaCriteriaQueryCreato
       CriteriaBuilder builder,
       Root<?> root) {
 
-    CriteriaQuery<? extends Object> select = query.select(getCountQuery(query, builder, root));
+    // the count itself is distinct, a distinct single row would only add work
+    CriteriaQuery<? extends Object> select =
+        query.select(getCountQuery(query, builder, root)).distinct(false);
     return predicate == null ? select : select.where(predicate);
   }
 
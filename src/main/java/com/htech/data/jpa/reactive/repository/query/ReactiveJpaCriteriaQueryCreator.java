@@ -4,12 +4,10 @@ import static com.htech.data.jpa.reactive.repository.query.QueryUtils.toExpressi
 import static org.springframework.data.repository.query.parser.Part.Type.*;
 
 import jakarta.persistence.criteria.*;
-import jakarta.persistence.metamodel.SingularAttribute;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.data.jpa.repository.query.QueryUtils;
@@ -55,7 +53,11 @@ public class ReactiveJpaCriteriaQueryCreator
       CriteriaBuilder builder, ReturnedType type) {
     Class<?> typeToRead = tree.isDelete() ? type.getDomainType() : type.getTypeToRead();
 
-    return (typeToRead == null) || tree.isExistsProjection() //
+    if (tree.isExistsProjection()) {
+      return builder.createQuery(Integer.class);
+    }
+
+    return (typeToRead == null) //
         ? builder.createTupleQuery() //
         : builder.createQuery(typeToRead);
   }
@@ -111,18 +113,8 @@ public class ReactiveJpaCriteriaQueryCreator
                           selections.toArray(new Selection[0])));
 
     } else if (tree.isExistsProjection()) {
-      if (root.getModel().hasSingleIdAttribute()) {
-        SingularAttribute<?, ?> id =
-            root.getModel().getId(root.getModel().getIdType().getJavaType());
-        query = query.multiselect(root.get((SingularAttribute) id).alias(id.getName()));
-
-      } else {
-        query =
-            query.multiselect(
-                root.getModel().getIdClassAttributes().stream() //
-                    .map(it -> (Selection<?>) root.get((SingularAttribute) it).alias(it.getName()))
-                    .collect(Collectors.toList()));
-      }
+      // a constant is enough to tell whether a row matches, nothing gets hydrated
+      query = ((CriteriaQuery) query).select(builder.literal(1));
 
     } else {
       query = query.select((Root) root);
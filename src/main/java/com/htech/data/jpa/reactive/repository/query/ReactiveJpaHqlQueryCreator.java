@@ -0,0 +1,370 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import static org.springframework.data.repository.query.parser.Part.Type.*;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Renders a {@link PartTree} to a JPQL/HQL string instead of a criteria query. Hibernate caches the
+ * interpretation of a query string, so a derived query rendered once is also translated once. Joins
+ * and predicates follow {@link PredicateBuilder} and {@link QueryUtils}; parameters are positional,
+ * numbered in the order {@link ParameterMetadataProvider} hands them out.
+ *
+ * @author Bao.Ngo
+ */
+public class ReactiveJpaHqlQueryCreator
+    extends AbstractQueryCreator<ReactiveJpaHqlQueryCreator.HqlQuery, String> {
+
+  private static final String ROOT_ALIAS = "x";
+
+  private final ReturnedType returnedType;
+  private final ParameterMetadataProvider provider;
+  private final EscapeCharacter escape;
+  private final boolean count;
+  private final String entityName;
+  private final From root;
+  private final List<From> joins = new ArrayList<>();
+
+  public ReactiveJpaHqlQueryCreator(
+      PartTree tree,
+      ReturnedType type,
+      Metamodel metamodel,
+      ParameterMetadataProvider provider,
+      boolean count) {
+    super(tree);
+
+    EntityType<?> domainType = metamodel.entity(type.getDomainType());
+    this.returnedType = type;
+    this.provider = provider;
+    this.escape = provider.getEscape();
+    this.count = count;
+    this.entityName = domainType.getName();
+    this.root = new From(ROOT_ALIAS, null, null, false, domainType);
+  }
+
+  @Override
+  public List<ParameterMetadataProvider.ParameterMetadata<?>> getParameterExpressions() {
+    return provider.getExpressions();
+  }
+
+  @Override
+  protected String create(Part part, Iterator<Object> iterator) {
+    return toPredicate(part);
+  }
+
+  @Override
+  protected String and(Part part, String base, Iterator<Object> iterator) {
+    return base + " and " + toPredicate(part);
+  }
+
+  @Override
+  protected String or(String base, String predicate) {
+    return base + " or " + predicate;
+  }
+
+  @Override
+  protected HqlQuery complete(@Nullable String predicate, Sort sort) {
+    String where = predicate == null ? "" : " where " + predicate;
+    if (!count && tree.isDelete()) {
+      // joined like the criteria delete, Hibernate moves the joins into an exists subquery
+      return new HqlQuery("delete" + from() + where, null);
+    }
+
+    Class<?> resultType;
+    String selection;
+    if (count) {
+      resultType = Long.class;
+      selection = tree.isDistinct() ? "count(distinct x)" : "count(x)";
+    } else {
+      String distinct = tree.isDistinct() && !tree.isCountProjection() ? "distinct " : "";
+      if (returnedType.needsCustomConstruction()) {
+        Class<?> typeToRead = returnedType.getTypeToRead();
+        resultType = typeToRead == null ? Tuple.class : typeToRead;
+        selection = distinct + toSelection(typeToRead);
+      } else if (tree.isExistsProjection()) {
+        // a constant is enough to tell whether a row matches, nothing gets hydrated
+        resultType = Integer.class;
+        selection = distinct + "1";
+      } else {
+        Class<?> typeToRead = returnedType.getTypeToRead();
+        resultType = typeToRead == null ? returnedType.getDomainType() : typeToRead;
+        selection = distinct + ROOT_ALIAS;
+      }
+    }
+
+    String orderBy = count || sort.isUnsorted() ? "" : " order by " + toOrders(sort);
+
+    return new HqlQuery("select " + selection + from() + where + orderBy, resultType);
+  }
+
+  private String from() {
+    StringBuilder from =
+        new StringBuilder(" from ").append(entityName).append(' ').append(ROOT_ALIAS);
+    for (From join : joins) {
+      from.append(join.outer() ? " left join " : " join ");
+      from.append(join.parent()).append('.').append(join.attribute()).append(' ');
+      from.append(join.alias());
+    }
+    return from.toString();
+  }
+
+  private String toSelection(@Nullable Class<?> typeToRead) {
+    List<String> selections = new ArrayList<>();
+    for (String property : returnedType.getInputProperties()) {
+      String path =
+          toPath(root, PropertyPath.from(property, returnedType.getDomainType()), true, false);
+      selections.add(typeToRead == null ? path + " as " + property : path);
+    }
+
+    String items = String.join(", ", selections);
+    return typeToRead == null ? items : "new " + typeToRead.getName() + "(" + items + ")";
+  }
+
+  private String toOrders(Sort sort) {
+    return sort.stream()
+        .map(
+            order -> {
+              PropertyPath property =
+                  PropertyPath.from(order.getProperty(), returnedType.getDomainType());
+              String expression = toPath(root, property, false, false);
+              if (order.isIgnoreCase() && String.class.equals(property.getLeafType())) {
+                expression = "lower(" + expression + ")";
+              }
+              return expression + (order.isAscending() ? " asc" : " desc");
+            })
+        .collect(Collectors.joining(", "));
+  }
+
+  private String toPredicate(Part part) {
+    PropertyPath property = part.getProperty();
+    Part.Type type = part.getType();
+
+    switch (type) {
+      case BETWEEN:
+        String first = parameter(provider.next(part));
+        String second = parameter(provider.next(part));
+        return path(part) + " between " + first + " and " + second;
+      case AFTER:
+      case GREATER_THAN:
+        return path(part) + " > " + parameter(provider.next(part, Comparable.class));
+      case GREATER_THAN_EQUAL:
+        return path(part) + " >= " + parameter(provider.next(part, Comparable.class));
+      case BEFORE:
+      case LESS_THAN:
+        return path(part) + " < " + parameter(provider.next(part, Comparable.class));
+      case LESS_THAN_EQUAL:
+        return path(part) + " <= " + parameter(provider.next(part, Comparable.class));
+      case IS_NULL:
+        return path(part) + " is null";
+      case IS_NOT_NULL:
+        return path(part) + " is not null";
+      case NOT_IN:
+      case IN:
+        String in = type.equals(NOT_IN) ? " not in (" : " in (";
+        return upperIfIgnoreCase(part, path(part), property.getLeafType())
+            + in
+            + parameter(provider.next(part, Collection.class))
+            + ")";
+      case STARTING_WITH:
+      case ENDING_WITH:
+      case CONTAINING:
+      case NOT_CONTAINING:
+        if (property.getLeafProperty().isCollection()) {
+          String member = type.equals(NOT_CONTAINING) ? " not member of " : " member of ";
+          return parameter(provider.next(part)) + member + traversePath(property);
+        }
+
+      case LIKE:
+      case NOT_LIKE:
+        String propertyExpression = upperIfIgnoreCase(part, path(part), property.getLeafType());
+        ParameterMetadataProvider.ParameterMetadata<?> metadata = provider.next(part, String.class);
+        String parameterExpression =
+            upperIfIgnoreCase(part, parameter(metadata), metadata.getExpression().getJavaType());
+        String like =
+            type.equals(NOT_LIKE) || type.equals(NOT_CONTAINING) ? " not like " : " like ";
+        return propertyExpression + like + parameterExpression + " escape " + escapeLiteral();
+      case TRUE:
+        // a boolean path is a predicate of its own, as the criteria isTrue/isFalse render it
+        return path(part);
+      case FALSE:
+        return "not " + path(part);
+      case SIMPLE_PROPERTY:
+        ParameterMetadataProvider.ParameterMetadata<?> expression = provider.next(part);
+        String path = path(part);
+        return expression.isIsNullParameter()
+            ? path + " is null"
+            : upperIfIgnoreCase(part, path, property.getLeafType())
+                + " = "
+                + upperIfIgnoreCase(
+                    part, parameter(expression), expression.getExpression().getJavaType());
+      case NEGATING_SIMPLE_PROPERTY:
+        ParameterMetadataProvider.ParameterMetadata<?> negated = provider.next(part);
+        return upperIfIgnoreCase(part, path(part), property.getLeafType())
+            + " <> "
+            + upperIfIgnoreCase(part, parameter(negated), negated.getExpression().getJavaType());
+      case IS_EMPTY:
+      case IS_NOT_EMPTY:
+        if (!property.getLeafProperty().isCollection()) {
+          throw new IllegalArgumentException(
+              "IsEmpty / IsNotEmpty can only be used on collection properties");
+        }
+
+        return traversePath(property) + (type.equals(IS_NOT_EMPTY) ? " is not empty" : " is empty");
+
+      default:
+        throw new IllegalArgumentException("Unsupported keyword " + type);
+    }
+  }
+
+  /** The positional parameter of the metadata just handed out by the provider. */
+  private String parameter(ParameterMetadataProvider.ParameterMetadata<?> metadata) {
+    return "?" + (provider.getExpressions().indexOf(metadata) + 1);
+  }
+
+  private String escapeLiteral() {
+    char character = escape.getEscapeCharacter();
+    return character == '\'' ? "''''" : "'" + character + "'";
+  }
+
+  private String upperIfIgnoreCase(Part part, String expression, @Nullable Class<?> type) {
+    switch (part.shouldIgnoreCase()) {
+      case ALWAYS:
+        Assert.state(
+            String.class.equals(type),
+            "Unable to ignore case of "
+                + (type == null ? null : type.getName())
+                + " types, the property '"
+                + part.getProperty().getSegment()
+                + "' must reference a String");
+        return "upper(" + expression + ")";
+
+      case WHEN_POSSIBLE:
+        if (String.class.equals(type)) {
+          return "upper(" + expression + ")";
+        }
+
+      case NEVER:
+      default:
+        return expression;
+    }
+  }
+
+  private String path(Part part) {
+    return toPath(root, part.getProperty(), false, false);
+  }
+
+  private static String traversePath(PropertyPath property) {
+    return ROOT_ALIAS + "." + property.toDotPath();
+  }
+
+  private String toPath(
+      From from, PropertyPath property, boolean isForSelection, boolean hasRequiredOuterJoin) {
+    String segment = property.getSegment();
+    boolean isLeafProperty = !property.hasNext();
+    Attribute<?, ?> attribute = attribute(from, segment);
+    boolean requiresOuterJoin =
+        attribute != null
+            && !isAlreadyInnerJoined(from, segment)
+            && QueryUtils.requiresOuterJoin(
+                attribute, isLeafProperty, isForSelection, hasRequiredOuterJoin);
+
+    // if it does not require an outer join and is a leaf, simply get the segment
+    if (!requiresOuterJoin && isLeafProperty) {
+      return from.alias() + "." + segment;
+    }
+
+    // embeddables are navigated rather than joined
+    if (!requiresOuterJoin && attribute != null && !isJoinable(attribute)) {
+      From embedded = new From(from.alias() + "." + segment, null, null, false, target(attribute));
+      return toPath(embedded, property.next(), isForSelection, false);
+    }
+
+    From join = getOrCreateJoin(from, segment, attribute, requiresOuterJoin);
+    if (isLeafProperty) {
+      return join.alias();
+    }
+
+    return toPath(join, property.next(), isForSelection, requiresOuterJoin);
+  }
+
+  private From getOrCreateJoin(
+      From from, String segment, @Nullable Attribute<?, ?> attribute, boolean outer) {
+    for (From join : joins) {
+      if (from.alias().equals(join.parent()) && segment.equals(join.attribute())) {
+        return join;
+      }
+    }
+
+    From join = new From("j" + (joins.size() + 1), from.alias(), segment, outer, target(attribute));
+    joins.add(join);
+    return join;
+  }
+
+  private boolean isAlreadyInnerJoined(From from, String segment) {
+    for (From join : joins) {
+      if (from.alias().equals(join.parent()) && segment.equals(join.attribute()) && !join.outer()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isJoinable(Attribute<?, ?> attribute) {
+    return attribute.isAssociation() || attribute.isCollection();
+  }
+
+  @Nullable
+  private static Attribute<?, ?> attribute(From from, String segment) {
+    if (from.type() == null) {
+      return null;
+    }
+    for (Attribute<?, ?> attribute : from.type().getAttributes()) {
+      if (attribute.getName().equals(segment)) {
+        return attribute;
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private static ManagedType<?> target(@Nullable Attribute<?, ?> attribute) {
+    Type<?> type =
+        attribute instanceof PluralAttribute<?, ?, ?> plural
+            ? plural.getElementType()
+            : attribute instanceof SingularAttribute<?, ?> singular ? singular.getType() : null;
+    return type instanceof ManagedType<?> managedType ? managedType : null;
+  }
+
+  /**
+   * @param resultType the type to read, {@code null} for a delete
+   */
+  public record HqlQuery(String query, @Nullable Class<?> resultType) {}
+
+  /** The root, a join or an embedded path of the rendered query. */
+  private record From(
+      String alias,
+      @Nullable String parent,
+      @Nullable String attribute,
+      boolean outer,
+      @Nullable ManagedType<?> type) {}
+}
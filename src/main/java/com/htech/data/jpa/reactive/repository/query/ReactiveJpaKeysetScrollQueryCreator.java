@@ -0,0 +1,74 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.KeysetScrollSpecification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ReactiveJpaCriteriaQueryCreator} that seeks to a {@link KeysetScrollPosition} with a
+ * predicate on the sort keys instead of skipping rows.
+ *
+ * @author Bao.Ngo
+ */
+class ReactiveJpaKeysetScrollQueryCreator extends ReactiveJpaCriteriaQueryCreator {
+
+  private final JpaEntityInformation<?, ?> entityInformation;
+  private final KeysetScrollPosition scrollPosition;
+
+  public ReactiveJpaKeysetScrollQueryCreator(
+      PartTree tree,
+      ReturnedType type,
+      CriteriaBuilder builder,
+      ParameterMetadataProvider provider,
+      JpaEntityInformation<?, ?> entityInformation,
+      KeysetScrollPosition scrollPosition) {
+    super(tree, type, builder, provider);
+
+    this.entityInformation = entityInformation;
+    this.scrollPosition = scrollPosition;
+  }
+
+  @Override
+  protected CriteriaQuery<? extends Object> complete(
+      @Nullable Predicate predicate,
+      Sort sort,
+      CriteriaQuery<? extends Object> query,
+      CriteriaBuilder builder,
+      Root<?> root) {
+    KeysetScrollSpecification<Object> keysetSpec =
+        new KeysetScrollSpecification<>(scrollPosition, sort, entityInformation);
+    Predicate keysetPredicate = keysetSpec.createPredicate(root, builder);
+
+    CriteriaQuery<? extends Object> queryToUse =
+        super.complete(predicate, keysetSpec.sort(), query, builder, root);
+
+    if (keysetPredicate == null) {
+      return queryToUse;
+    }
+
+    return queryToUse.getRestriction() == null
+        ? queryToUse.where(keysetPredicate)
+        : queryToUse.where(builder.and(queryToUse.getRestriction(), keysetPredicate));
+  }
+
+  @Override
+  Collection<String> getRequiredSelection(Sort sort, ReturnedType returnedType) {
+    Sort sortToUse = KeysetScrollSpecification.createSort(scrollPosition, sort, entityInformation);
+
+    Set<String> selection = new LinkedHashSet<>(returnedType.getInputProperties());
+    sortToUse.forEach(it -> selection.add(it.getProperty()));
+
+    return selection;
+  }
+}
@@ -1,77 +1,60 @@
 package com.htech.data.jpa.reactive.repository.query;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.util.Set;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.util.Lazy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.ReflectionUtils;
+import org.springframework.util.ClassUtils;
 
 /**
+ * {@link QueryEnhancer} backed by Spring Data JPA's ANTLR based JPQL and HQL parsers. The parsers
+ * are package private, so they are bound once per parser type through {@link MethodHandle}s; a call
+ * is a plain handle invocation without any reflective lookup.
+ *
  * @author Bao.Ngo
  */
 public class ReactiveJpaQueryEnhancer implements QueryEnhancer {
 
+  static final String JPQL_PARSER = "org.springframework.data.jpa.repository.query.JpqlQueryParser";
+  static final String HQL_PARSER = "org.springframework.data.jpa.repository.query.HqlQueryParser";
+  static final String PARSER_SUPPORT =
+      "org.springframework.data.jpa.repository.query.JpaQueryParserSupport";
+
+  private static final Lazy<QueryParser> JPQL = Lazy.of(() -> QueryParser.bind(JPQL_PARSER));
+  private static final Lazy<QueryParser> HQL = Lazy.of(() -> QueryParser.bind(HQL_PARSER));
+
   protected final DeclaredQuery query;
   protected final Object queryParser;
+  private final QueryParser parser;
 
-  private ReactiveJpaQueryEnhancer(DeclaredQuery query, Object queryParser) {
+  private ReactiveJpaQueryEnhancer(DeclaredQuery query, QueryParser parser) {
     this.query = query;
-    this.queryParser = queryParser;
+    this.parser = parser;
+    this.queryParser = parser.create(query.getQueryString());
   }
 
-  public static ReactiveJpaQueryEnhancer forJpql(DeclaredQuery query) throws Exception {
+  public static ReactiveJpaQueryEnhancer forJpql(DeclaredQuery query) {
     Assert.notNull(query, "DeclaredQuery must not be null!");
-
-    Class<?> clazz = Class.forName("org.springframework.data.jpa.repository.query.JpqlQueryParser");
-    Constructor<?> constructor = ReflectionUtils.accessibleConstructor(clazz, String.class);
-    return new ReactiveJpaQueryEnhancer(query, constructor.newInstance(query.getQueryString()));
+    return new ReactiveJpaQueryEnhancer(query, JPQL.get());
   }
 
-  public static ReactiveJpaQueryEnhancer forHql(DeclaredQuery query) throws Exception {
+  public static ReactiveJpaQueryEnhancer forHql(DeclaredQuery query) {
     Assert.notNull(query, "DeclaredQuery must not be null!");
-
-    Class<?> clazz = Class.forName("org.springframework.data.jpa.repository.query.HqlQueryParser");
-    Constructor<?> constructor = ReflectionUtils.accessibleConstructor(clazz, String.class);
-    return new ReactiveJpaQueryEnhancer(query, constructor.newInstance(query.getQueryString()));
+    return new ReactiveJpaQueryEnhancer(query, HQL.get());
   }
 
-  /*public static ReactiveJpaQueryEnhancer forEql(DeclaredQuery query) {
-
-    Assert.notNull(query, "DeclaredQuery must not be null!");
-
-    return new ReactiveJpaQueryEnhancer(query, new EqlQueryParser(query.getQueryString()));
-  }*/
-
   protected Object getQueryParsingStrategy() {
     return queryParser;
   }
 
   @Override
   public String applySorting(Sort sort) {
-    return invokeQueryParser("renderSortedQuery", new Class[] {Sort.class}, sort);
-  }
-
-  private <T> T invokeQueryParser(
-      String methodName, Class<?>[] methodParamTypes, Object... params) {
-    try {
-      Method method;
-      if (methodParamTypes == null || methodParamTypes.length == 0) {
-        method = ReflectionUtils.findMethod(queryParser.getClass(), methodName);
-      } else {
-        method = ReflectionUtils.findMethod(queryParser.getClass(), methodName, methodParamTypes);
-      }
-      ReflectionUtils.makeAccessible(method);
-
-      if (params == null || params.length == 0) {
-        return (T) method.invoke(queryParser);
-      }
-
-      return (T) method.invoke(queryParser, params);
-    } catch (Exception e) {
-      throw new RuntimeException(e.getMessage(), e);
-    }
+    return parser.renderSortedQuery(queryParser, sort);
   }
 
   @Override
@@ -81,14 +64,7 @@ public class ReactiveJpaQueryEnhancer implements QueryEnhancer {
 
   @Override
   public String detectAlias() {
-    return invokeQueryParser("findAlias", null);
-    //    try {
-    //      Method method = ReflectionUtils.findMethod(queryParser.getClass(), "findAlias");
-    //      ReflectionUtils.makeAccessible(method);
-    //      return (String) method.invoke(queryParser);
-    //    } catch (Exception e) {
-    //      throw new RuntimeException(e.getMessage(), e);
-    //    }
+    return parser.findAlias(queryParser);
   }
 
   @Override
@@ -98,17 +74,17 @@ public class ReactiveJpaQueryEnhancer implements QueryEnhancer {
 
   @Override
   public String createCountQueryFor(@Nullable String countProjection) {
-    return invokeQueryParser("createCountQuery", new Class[] {String.class}, countProjection);
+    return parser.createCountQuery(queryParser, countProjection);
   }
 
   @Override
   public boolean hasConstructorExpression() {
-    return invokeQueryParser("hasConstructorExpression", null);
+    return parser.hasConstructorExpression(queryParser);
   }
 
   @Override
   public String getProjection() {
-    return invokeQueryParser("projection", null);
+    return parser.projection(queryParser);
   }
 
   @Override
@@ -120,4 +96,103 @@ public class ReactiveJpaQueryEnhancer implements QueryEnhancer {
   public DeclaredQuery getQuery() {
     return query;
   }
+
+  private record QueryParser(
+      MethodHandle constructor,
+      MethodHandle renderSortedQuery,
+      MethodHandle findAlias,
+      MethodHandle createCountQuery,
+      MethodHandle hasConstructorExpression,
+      MethodHandle projection) {
+
+    static QueryParser bind(String className) {
+      try {
+        Class<?> type =
+            ClassUtils.forName(className, ReactiveJpaQueryEnhancer.class.getClassLoader());
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+
+        return new QueryParser(
+            lookup
+                .findConstructor(type, methodType(void.class, String.class))
+                .asType(methodType(Object.class, String.class)),
+            virtual(lookup, type, "renderSortedQuery", String.class, Sort.class),
+            virtual(lookup, type, "findAlias", String.class),
+            virtual(lookup, type, "createCountQuery", String.class, String.class),
+            virtual(lookup, type, "hasConstructorExpression", boolean.class),
+            virtual(lookup, type, "projection", String.class));
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Cannot bind query parser " + className, e);
+      }
+    }
+
+    private static MethodHandle virtual(
+        MethodHandles.Lookup lookup,
+        Class<?> type,
+        String name,
+        Class<?> returnType,
+        Class<?>... parameterTypes)
+        throws ReflectiveOperationException {
+      MethodHandle handle = lookup.findVirtual(type, name, methodType(returnType, parameterTypes));
+      return handle.asType(handle.type().changeParameterType(0, Object.class));
+    }
+
+    Object create(String query) {
+      try {
+        return constructor.invokeExact(query);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    String renderSortedQuery(Object parser, Sort sort) {
+      try {
+        return (String) renderSortedQuery.invokeExact(parser, sort);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    String findAlias(Object parser) {
+      try {
+        return (String) findAlias.invokeExact(parser);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    String createCountQuery(Object parser, @Nullable String countProjection) {
+      try {
+        return (String) createCountQuery.invokeExact(parser, countProjection);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    boolean hasConstructorExpression(Object parser) {
+      try {
+        return (boolean) hasConstructorExpression.invokeExact(parser);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    String projection(Object parser) {
+      try {
+        return (String) projection.invokeExact(parser);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+      // parse errors such as BadJpqlGrammarException surface unchanged
+      if (e instanceof RuntimeException runtimeException) {
+        return runtimeException;
+      }
+      if (e instanceof Error error) {
+        throw error;
+      }
+      return new RuntimeException(e.getMessage(), e);
+    }
+  }
 }
@@ -8,7 +8,9 @@ import org.reactivestreams.Publisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.ConfigurableConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -90,16 +92,18 @@ public abstract class ReactiveJpaQueryExecution {
         AbstractReactiveJpaQuery reactiveJpaQuery,
         ReactiveJpaParametersParameterAccessor accessor,
         Mono<Stage.Session> session) {
-      return query
-          .map(Stage.SelectionQuery.class::cast)
-          .flatMap(
-              q ->
-                  Mono.defer(
-                      () -> {
-                        CompletionStage<List<?>> resultList = q.getResultList();
-                        return Mono.fromCompletionStage(resultList);
-                      }))
-          .flatMapMany(Flux::fromIterable);
+      Flux<?> results =
+          query
+              .map(Stage.SelectionQuery.class::cast)
+              .flatMap(
+                  q ->
+                      Mono.defer(
+                          () -> {
+                            CompletionStage<List<?>> resultList = q.getResultList();
+                            return Mono.fromCompletionStage(resultList);
+                          }))
+              .flatMapMany(Flux::fromIterable);
+      return reactiveJpaQuery.maybeCallAfterLoad(results, accessor);
     }
 
     /*@Override
@@ -127,6 +131,38 @@ public abstract class ReactiveJpaQueryExecution {
     }*/
   }
 
+  static class StreamExecution extends ReactiveJpaQueryExecution {
+
+    private final int fetchSize;
+    private final CollectionExecution collectionExecution = new CollectionExecution();
+
+    StreamExecution(int fetchSize) {
+      this.fetchSize = fetchSize;
+    }
+
+    @Override
+    protected Publisher<?> doExecute(
+        Mono<Stage.AbstractQuery> query,
+        AbstractReactiveJpaQuery reactiveJpaQuery,
+        ReactiveJpaParametersParameterAccessor accessor,
+        Mono<Stage.Session> session) {
+      // offset windows without a unique order may skip or repeat rows, such a query is read at once
+      if (reactiveJpaQuery.getStreamTiebreaker(accessor) == null) {
+        return collectionExecution.doExecute(query, reactiveJpaQuery, accessor, session);
+      }
+
+      Class<?> domainType = reactiveJpaQuery.getQueryMethod().getEntityInformation().getJavaType();
+      Flux<?> results =
+          session
+              .zipWith(query.map(Stage.SelectionQuery.class::cast))
+              .flatMapMany(
+                  t ->
+                      QueryStreamUtils.stream(
+                          t.getT1(), (Stage.SelectionQuery<?>) t.getT2(), fetchSize, domainType));
+      return reactiveJpaQuery.maybeCallAfterLoad(results, accessor);
+    }
+  }
+
   static class SingleEntityExecution extends ReactiveJpaQueryExecution {
 
     /*@Override
@@ -153,14 +189,58 @@ public abstract class ReactiveJpaQueryExecution {
         AbstractReactiveJpaQuery reactiveJpaQuery,
         ReactiveJpaParametersParameterAccessor accessor,
         Mono<Stage.Session> session) {
-      return query
-          .map(Stage.SelectionQuery.class::cast)
-          .flatMap(q -> Mono.defer(() -> Mono.fromCompletionStage(q.getSingleResult())));
+      Mono<?> result =
+          query
+              .map(Stage.SelectionQuery.class::cast)
+              .flatMap(q -> Mono.defer(() -> Mono.fromCompletionStage(q.getSingleResult())));
+      return reactiveJpaQuery.maybeCallAfterLoad(result, accessor);
     }
   }
 
   static class PagedExecution extends ReactiveJpaQueryExecution {
 
+    private final @Nullable Stage.SessionFactory concurrentCountSessionFactory;
+
+    public PagedExecution(@Nullable Stage.SessionFactory concurrentCountSessionFactory) {
+      this.concurrentCountSessionFactory = concurrentCountSessionFactory;
+    }
+
+    @Override
+    protected Publisher<?> doExecute(
+        Mono<Stage.AbstractQuery> query,
+        AbstractReactiveJpaQuery reactiveJpaQuery,
+        ReactiveJpaParametersParameterAccessor accessor,
+        Mono<Stage.Session> session) {
+      Mono<List<Object>> content =
+          query
+              .map(Stage.SelectionQuery.class::cast)
+              .flatMap(
+                  q -> {
+                    CompletionStage<List<Object>> list = q.getResultList();
+                    return Mono.fromCompletionStage(list);
+                  })
+              .flatMap(list -> reactiveJpaQuery.maybeCallAfterLoad(list, accessor));
+
+      return ReactivePageableExecutionUtils.getPage(
+          content,
+          accessor.getPageable(),
+          countSession ->
+              reactiveJpaQuery
+                  .createCountQuery(countSession, accessor)
+                  .map(Stage.SelectionQuery.class::cast)
+                  .flatMap(
+                      q -> {
+                        CompletionStage<List<Long>> resultList = q.getResultList();
+                        return Mono.fromCompletionStage(resultList);
+                      })
+                  .map(l -> l.stream().reduce(0L, Long::sum)),
+          session,
+          concurrentCountSessionFactory);
+    }
+  }
+
+  static class SlicedExecution extends ReactiveJpaQueryExecution {
+
     @Override
     protected Publisher<?> doExecute(
         Mono<Stage.AbstractQuery> query,
@@ -171,21 +251,53 @@ public abstract class ReactiveJpaQueryExecution {
           .map(Stage.SelectionQuery.class::cast)
           .flatMap(
               q -> {
-                CompletionStage<List<?>> list = q.getResultList();
+                CompletionStage<List<Object>> list =
+                    ReactivePageableExecutionUtils.limitForSlice(q, accessor.getPageable())
+                        .getResultList();
                 return Mono.fromCompletionStage(list);
               })
-          .zipWhen(
-              __ ->
-                  reactiveJpaQuery
-                      .createCountQuery(session, accessor)
-                      .map(Stage.SelectionQuery.class::cast)
-                      .flatMap(
-                          q -> {
-                            CompletionStage<List<Long>> resultList = q.getResultList();
-                            return Mono.fromCompletionStage(resultList);
-                          })
-                      .map(l -> l.stream().reduce(0L, Long::sum)))
-          .map(t -> PageableExecutionUtils.getPage(t.getT1(), accessor.getPageable(), t::getT2));
+          .flatMap(list -> reactiveJpaQuery.maybeCallAfterLoad(list, accessor))
+          .map(list -> ReactivePageableExecutionUtils.getSlice(list, accessor.getPageable()));
+    }
+  }
+
+  static class ScrollExecution extends ReactiveJpaQueryExecution {
+
+    private final Sort sort;
+    private final ReactiveScrollDelegate<?> delegate;
+
+    ScrollExecution(Sort sort, ReactiveScrollDelegate<?> delegate) {
+      this.sort = sort;
+      this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected Publisher<?> doExecute(
+        Mono<Stage.AbstractQuery> query,
+        AbstractReactiveJpaQuery reactiveJpaQuery,
+        ReactiveJpaParametersParameterAccessor accessor,
+        Mono<Stage.Session> session) {
+      ScrollPosition scrollPosition = accessor.getScrollPosition();
+      Assert.notNull(scrollPosition, "ScrollPosition must not be null");
+
+      return query
+          .map(Stage.SelectionQuery.class::cast)
+          .flatMap(
+              q -> {
+                if (q.getMaxResults() == Integer.MAX_VALUE
+                    && accessor.getParameters().hasLimitParameter()
+                    && accessor.getLimit().isLimited()) {
+                  q.setMaxResults(accessor.getLimit().max());
+                }
+
+                return ((ReactiveScrollDelegate) delegate)
+                    .scroll(
+                        q,
+                        sort.and(accessor.getSort()),
+                        scrollPosition,
+                        list -> reactiveJpaQuery.maybeCallAfterLoad((List) list, accessor));
+              });
     }
   }
 
@@ -341,7 +453,7 @@ public abstract class ReactiveJpaQueryExecution {
               q ->
                   Mono.defer(
                       () -> {
-                        CompletionStage<List<?>> resultList = q.getResultList();
+                        CompletionStage<List<?>> resultList = q.setMaxResults(1).getResultList();
                         return Mono.fromCompletionStage(resultList);
                       }))
           .map(CollectionUtils::isNotEmpty);
@@ -26,7 +26,6 @@ public class ReactiveJpaQueryExecutionConverters {
   private static final Set<WrapperType> WRAPPER_TYPES = new HashSet<>();
   private static final Set<WrapperType> UN_WRAPPER_TYPES = new HashSet<>();
   private static final Set<Function<Object, Object>> UNWRAPPERS = new HashSet<>();
-  private static final Set<Class<?>> ALLOWED_PAGEABLE_TYPES = new HashSet<>();
   private static final Map<Class<?>, QueryExecutionConverters.ExecutionAdapter> EXECUTION_ADAPTER =
       new HashMap<>();
   private static final Map<Class<?>, Boolean> supportsCache = new ConcurrentReferenceHashMap<>();
@@ -46,11 +45,6 @@ public class ReactiveJpaQueryExecutionConverters {
     //
     // UNWRAPPER_TYPES.add(QueryExecutionConverters.WrapperType.singleValue(CompletableFuture.class));
 
-    //    ALLOWED_PAGEABLE_TYPES.add(Slice.class);
-    //    ALLOWED_PAGEABLE_TYPES.add(Page.class);
-    //    ALLOWED_PAGEABLE_TYPES.add(List.class);
-    //    ALLOWED_PAGEABLE_TYPES.add(Window.class);
-
     //
     // WRAPPER_TYPES.add(QueryExecutionConverters.NullableWrapperToCompletableFutureConverter.getWrapperType());
 
@@ -59,8 +53,6 @@ public class ReactiveJpaQueryExecutionConverters {
     //
     // CustomCollections.getCustomTypes().stream().map(QueryExecutionConverters.WrapperType::multiValue).forEach(WRAPPER_TYPES::add);
 
-    //    ALLOWED_PAGEABLE_TYPES.addAll(CustomCollections.getPaginationReturnTypes());
-
   }
 
   private ReactiveJpaQueryExecutionConverters() {}
@@ -2,7 +2,6 @@ package com.htech.data.jpa.reactive.repository.query;
 
 import org.hibernate.reactive.stage.Stage;
 import org.springframework.data.jpa.repository.QueryRewriter;
-import org.springframework.data.repository.query.QueryCreationException;
 import org.springframework.data.repository.query.ReactiveQueryMethodEvaluationContextProvider;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
@@ -20,11 +19,6 @@ public enum ReactiveJpaQueryFactory {
       QueryRewriter queryRewriter,
       ReactiveQueryMethodEvaluationContextProvider evaluationContextProvider) {
 
-    if (method.isScrollQuery()) {
-      throw QueryCreationException.create(
-          method, "Scroll queries are not supported using String-based queries");
-    }
-
     return method.isNativeQuery()
         ? new NativeReactiveJpaQuery(
             method,
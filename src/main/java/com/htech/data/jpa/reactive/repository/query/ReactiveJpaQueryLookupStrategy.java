@@ -1,5 +1,6 @@
 package com.htech.data.jpa.reactive.repository.query;
 
+import com.htech.data.jpa.reactive.core.ReactiveJpaDataProperties;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import java.lang.reflect.Method;
@@ -30,7 +31,8 @@ public class ReactiveJpaQueryLookupStrategy {
       @Nullable QueryLookupStrategy.Key key,
       ReactiveQueryMethodEvaluationContextProvider evaluationContextProvider,
       ReactiveQueryRewriterProvider queryRewriterProvider,
-      EscapeCharacter escape) {
+      EscapeCharacter escape,
+      ReactiveJpaDataProperties dataProperties) {
 
     Assert.notNull(sessionFactory, "EntityManager must not be null");
     Assert.notNull(evaluationContextProvider, "EvaluationContextProvider must not be null");
@@ -43,14 +45,16 @@ public class ReactiveJpaQueryLookupStrategy {
             queryMethodFactory,
             evaluationContextProvider,
             queryRewriterProvider,
-            escape);
+            escape,
+            dataProperties);
       case USE_DECLARED_QUERY:
         return new DeclaredQueryLookupStrategy(
             entityManagerFactory,
             sessionFactory,
             queryMethodFactory,
             evaluationContextProvider,
-            queryRewriterProvider);
+            queryRewriterProvider,
+            dataProperties);
       case CREATE_IF_NOT_FOUND:
         return new CreateIfNotFoundQueryLookupStrategy(
             sessionFactory,
@@ -61,14 +65,17 @@ public class ReactiveJpaQueryLookupStrategy {
                 queryMethodFactory,
                 evaluationContextProvider,
                 queryRewriterProvider,
-                escape),
+                escape,
+                dataProperties),
             new DeclaredQueryLookupStrategy(
                 entityManagerFactory,
                 sessionFactory,
                 queryMethodFactory,
                 evaluationContextProvider,
-                queryRewriterProvider),
-            queryRewriterProvider);
+                queryRewriterProvider,
+                dataProperties),
+            queryRewriterProvider,
+            dataProperties);
       default:
         throw new IllegalArgumentException(
             String.format("Unsupported query lookup strategy %s", key));
@@ -80,17 +87,21 @@ public class ReactiveJpaQueryLookupStrategy {
     protected final Stage.SessionFactory sessionFactory;
     protected final ReactiveJpaQueryMethodFactory queryMethodFactory;
     protected final ReactiveQueryRewriterProvider queryRewriterProvider;
+    protected final ReactiveJpaDataProperties dataProperties;
 
     public AbstractQueryLookupStrategy(
         Stage.SessionFactory sessionFactory,
         ReactiveJpaQueryMethodFactory queryMethodFactory,
-        ReactiveQueryRewriterProvider queryRewriterProvider) {
+        ReactiveQueryRewriterProvider queryRewriterProvider,
+        ReactiveJpaDataProperties dataProperties) {
 
       Assert.notNull(sessionFactory, "EntityManager must not be null");
       Assert.notNull(queryMethodFactory, "JpaQueryMethodFactory must not be null");
+      Assert.notNull(dataProperties, "ReactiveJpaDataProperties must not be null");
       this.sessionFactory = sessionFactory;
       this.queryMethodFactory = queryMethodFactory;
       this.queryRewriterProvider = queryRewriterProvider;
+      this.dataProperties = dataProperties;
     }
 
     @Override
@@ -100,11 +111,17 @@ public class ReactiveJpaQueryLookupStrategy {
         ProjectionFactory factory,
         NamedQueries namedQueries) {
       ReactiveJpaQueryMethod queryMethod = queryMethodFactory.build0(method, metadata, factory);
-      return resolveQuery(
-          queryMethod,
-          queryRewriterProvider.getQueryRewriter(queryMethod),
-          sessionFactory,
-          namedQueries);
+      RepositoryQuery query =
+          resolveQuery(
+              queryMethod,
+              queryRewriterProvider.getQueryRewriter(queryMethod),
+              sessionFactory,
+              namedQueries);
+      if (query instanceof AbstractReactiveJpaQuery reactiveJpaQuery) {
+        reactiveJpaQuery.setDataProperties(dataProperties);
+      }
+
+      return query;
     }
 
     protected abstract RepositoryQuery resolveQuery(
@@ -126,9 +143,10 @@ public class ReactiveJpaQueryLookupStrategy {
         ReactiveJpaQueryMethodFactory queryMethodFactory,
         ReactiveQueryMethodEvaluationContextProvider evaluationContextProvider,
         ReactiveQueryRewriterProvider queryRewriterProvider,
-        EscapeCharacter escape) {
+        EscapeCharacter escape,
+        ReactiveJpaDataProperties dataProperties) {
 
-      super(sessionFactory, queryMethodFactory, queryRewriterProvider);
+      super(sessionFactory, queryMethodFactory, queryRewriterProvider, dataProperties);
       this.entityManagerFactory = entityManagerFactory;
       this.evaluationContextProvider = evaluationContextProvider;
       this.escape = escape;
@@ -154,9 +172,10 @@ public class ReactiveJpaQueryLookupStrategy {
         Stage.SessionFactory sessionFactory,
         ReactiveJpaQueryMethodFactory queryMethodFactory,
         ReactiveQueryMethodEvaluationContextProvider evaluationContextProvider,
-        ReactiveQueryRewriterProvider queryRewriterProvider) {
+        ReactiveQueryRewriterProvider queryRewriterProvider,
+        ReactiveJpaDataProperties dataProperties) {
 
-      super(sessionFactory, queryMethodFactory, queryRewriterProvider);
+      super(sessionFactory, queryMethodFactory, queryRewriterProvider, dataProperties);
       this.entityManagerFactory = entityManagerFactory;
       this.evaluationContextProvider = evaluationContextProvider;
     }
@@ -253,9 +272,10 @@ public class ReactiveJpaQueryLookupStrategy {
         ReactiveJpaQueryMethodFactory queryMethodFactory,
         CreateQueryLookupStrategy createStrategy,
         DeclaredQueryLookupStrategy lookupStrategy,
-        ReactiveQueryRewriterProvider queryRewriterProvider) {
+        ReactiveQueryRewriterProvider queryRewriterProvider,
+        ReactiveJpaDataProperties dataProperties) {
 
-      super(sessionFactory, queryMethodFactory, queryRewriterProvider);
+      super(sessionFactory, queryMethodFactory, queryRewriterProvider, dataProperties);
 
       Assert.notNull(createStrategy, "CreateQueryLookupStrategy must not be null");
       Assert.notNull(lookupStrategy, "DeclaredQueryLookupStrategy must not be null");
@@ -0,0 +1,109 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import com.htech.jpa.reactive.connection.TransactionUtils;
+import java.util.List;
+import java.util.function.Function;
+import org.hibernate.reactive.stage.Stage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link PageableExecutionUtils}: the count query is only subscribed to
+ * when the page content does not already determine the total.
+ *
+ * @author Bao.Ngo
+ */
+public class ReactivePageableExecutionUtils {
+
+  private ReactivePageableExecutionUtils() {}
+
+  public static <T> Mono<Page<T>> getPage(
+      List<T> content, Pageable pageable, Mono<Long> totalSupplier) {
+    Assert.notNull(content, "Content must not be null");
+    Assert.notNull(pageable, "Pageable must not be null");
+    Assert.notNull(totalSupplier, "TotalSupplier must not be null");
+
+    if (pageable.isUnpaged() || pageable.getOffset() == 0) {
+      if (pageable.isUnpaged() || pageable.getPageSize() > content.size()) {
+        return Mono.just(new PageImpl<>(content, pageable, content.size()));
+      }
+
+      return totalSupplier.map(total -> new PageImpl<>(content, pageable, total));
+    }
+
+    if (!content.isEmpty() && pageable.getPageSize() > content.size()) {
+      return Mono.just(new PageImpl<>(content, pageable, pageable.getOffset() + content.size()));
+    }
+
+    return totalSupplier.map(total -> new PageImpl<>(content, pageable, total));
+  }
+
+  /**
+   * Prepares {@code query} to read one row more than the requested slice, which tells whether a
+   * next slice exists without a count query.
+   */
+  public static <Q extends Stage.SelectionQuery<?>> Q limitForSlice(Q query, Pageable pageable) {
+    if (pageable.isPaged()) {
+      query.setMaxResults(pageable.getPageSize() + 1);
+    }
+
+    return query;
+  }
+
+  public static <T> Slice<T> getSlice(List<T> content, Pageable pageable) {
+    Assert.notNull(content, "Content must not be null");
+    Assert.notNull(pageable, "Pageable must not be null");
+
+    boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+    return new SliceImpl<>(
+        hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+  }
+
+  /**
+   * Reads a page with {@code content} and, if needed, {@code count} against {@code session}. When
+   * {@code concurrentCountSessionFactory} is given and no transaction is bound, the count runs at
+   * the same time as the content query on a session of its own instead: it is then always run, even
+   * when the content turns out to determine the total, which is still preferred over the count as
+   * it was read with the content.
+   */
+  public static <T> Mono<Page<T>> getPage(
+      Mono<List<T>> content,
+      Pageable pageable,
+      Function<Mono<Stage.Session>, Mono<Long>> count,
+      Mono<Stage.Session> session,
+      @Nullable Stage.SessionFactory concurrentCountSessionFactory) {
+    Mono<Page<T>> sequential =
+        content.flatMap(c -> getPage(c, pageable, Mono.defer(() -> count.apply(session))));
+
+    if (concurrentCountSessionFactory == null || pageable.isUnpaged()) {
+      return sequential;
+    }
+
+    return TransactionUtils.isTransactionAvailable(concurrentCountSessionFactory)
+        .flatMap(
+            transactionAvailable -> {
+              if (transactionAvailable) {
+                return sequential;
+              }
+
+              Mono<Long> total =
+                  Mono.usingWhen(
+                      Mono.defer(
+                          () ->
+                              Mono.fromCompletionStage(
+                                  concurrentCountSessionFactory.openSession())),
+                      s -> count.apply(Mono.just(s)),
+                      s -> Mono.defer(() -> Mono.fromCompletionStage(s.close())));
+
+              return Mono.zip(content, total)
+                  .flatMap(t -> getPage(t.getT1(), pageable, Mono.just(t.getT2())));
+            });
+  }
+}
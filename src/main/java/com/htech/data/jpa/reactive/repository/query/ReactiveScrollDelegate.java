@@ -0,0 +1,134 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import org.hibernate.reactive.stage.Stage;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.query.KeysetScrollSpecification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads a {@link Window} from a query that has already been restricted to the requested {@link
+ * ScrollPosition}, i.e. carries the keyset predicate and order or the offset. One row more than the
+ * limit is fetched to tell whether more rows follow.
+ *
+ * @author Bao.Ngo
+ */
+public class ReactiveScrollDelegate<T> {
+
+  private final @Nullable JpaEntityInformation<T, ?> entity;
+
+  public ReactiveScrollDelegate(@Nullable JpaEntityInformation<T, ?> entity) {
+    this.entity = entity;
+  }
+
+  public Mono<Window<T>> scroll(
+      Stage.SelectionQuery<T> query, Sort sort, ScrollPosition scrollPosition) {
+    return scroll(query, sort, scrollPosition, Mono::just);
+  }
+
+  /**
+   * Scrolls like {@link #scroll(Stage.SelectionQuery, Sort, ScrollPosition)}, passing the rows read
+   * through {@code rowProcessor} before the window is built.
+   */
+  public Mono<Window<T>> scroll(
+      Stage.SelectionQuery<T> query,
+      Sort sort,
+      ScrollPosition scrollPosition,
+      Function<List<T>, Mono<List<T>>> rowProcessor) {
+    Assert.notNull(query, "Query must not be null");
+    Assert.notNull(scrollPosition, "ScrollPosition must not be null");
+
+    if (scrollPosition instanceof KeysetScrollPosition && entity == null) {
+      return Mono.error(
+          new InvalidDataAccessApiUsageException(
+              "Keyset scrolling requires a derived query or a Specification"));
+    }
+
+    if (scrollPosition instanceof OffsetScrollPosition offset) {
+      query.setFirstResult(getFirstResult(offset));
+    }
+
+    int limit = query.getMaxResults();
+    if (limit > 0 && limit != Integer.MAX_VALUE) {
+      query.setMaxResults(limit + 1);
+    }
+
+    return Mono.defer(() -> Mono.fromCompletionStage(query.getResultList()))
+        .flatMap(rowProcessor)
+        .map(
+            result -> {
+              if (scrollPosition instanceof KeysetScrollPosition keyset) {
+                return createWindow(sort, limit, keyset, result);
+              }
+
+              if (scrollPosition instanceof OffsetScrollPosition offset) {
+                return createWindow(result, limit, offset.positionFunction());
+              }
+
+              throw new UnsupportedOperationException(
+                  "ScrollPosition " + scrollPosition + " not supported");
+            });
+  }
+
+  public static int getFirstResult(OffsetScrollPosition offset) {
+    return offset.isInitial() ? 0 : Math.toIntExact(offset.getOffset() + 1);
+  }
+
+  private Window<T> createWindow(
+      Sort sort, int limit, KeysetScrollPosition keyset, List<T> result) {
+    ScrollPosition.Direction direction = keyset.getDirection();
+    List<String> properties =
+        KeysetScrollSpecification.createSort(keyset, sort, entity).stream()
+            .map(Sort.Order::getProperty)
+            .toList();
+
+    // backward windows are read in reverse order, the extra row then comes first
+    List<T> resultsToUse = result;
+    if (direction == ScrollPosition.Direction.BACKWARD) {
+      resultsToUse = new ArrayList<>(result);
+      Collections.reverse(resultsToUse);
+      resultsToUse = getLast(limit, resultsToUse);
+    } else {
+      resultsToUse = getFirst(limit, resultsToUse);
+    }
+
+    List<T> window = resultsToUse;
+    IntFunction<ScrollPosition> positionFunction =
+        index -> {
+          Map<String, Object> keys = entity.getKeyset(properties, window.get(index));
+          return ScrollPosition.of(keys, direction);
+        };
+
+    return Window.from(window, positionFunction, hasMoreElements(result, limit));
+  }
+
+  private static <T> Window<T> createWindow(
+      List<T> result, int limit, IntFunction<? extends ScrollPosition> positionFunction) {
+    return Window.from(getFirst(limit, result), positionFunction, hasMoreElements(result, limit));
+  }
+
+  private static boolean hasMoreElements(List<?> result, int limit) {
+    return !result.isEmpty() && result.size() > limit;
+  }
+
+  private static <T> List<T> getFirst(int count, List<T> list) {
+    return count > 0 && list.size() > count ? list.subList(0, count) : list;
+  }
+
+  private static <T> List<T> getLast(int count, List<T> list) {
+    return count > 0 && list.size() > count ? list.subList(list.size() - count, list.size()) : list;
+  }
+}
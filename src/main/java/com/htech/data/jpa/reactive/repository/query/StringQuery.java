@@ -55,6 +55,10 @@ public class StringQuery implements DeclaredQuery {
     return this.queryEnhancer.getProjection();
   }
 
+  QueryEnhancer getQueryEnhancer() {
+    return this.queryEnhancer;
+  }
+
   @Override
   public List<ParameterBinding> getParameterBindings() {
     return bindings;
@@ -0,0 +1,121 @@
+package com.htech.data.jpa.reactive.repository.support;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.event.spi.CallbackRegistry;
+import org.hibernate.jpa.event.spi.CallbackType;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.reactive.stage.Stage;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Mapping facts about an entity type that decide whether an operation can bypass the persistence
+ * context. Falls back to the conservative answer when the Hibernate mapping model is not reachable.
+ *
+ * @author Bao.Ngo
+ */
+public class ReactiveJpaEntityMetadata<T> {
+
+  private final Class<T> domainClass;
+  private final @Nullable EntityPersister persister;
+  private final boolean customDelete;
+
+  private ReactiveJpaEntityMetadata(Class<T> domainClass, @Nullable EntityPersister persister) {
+    this.domainClass = domainClass;
+    this.persister = persister;
+    this.customDelete = persister == null || hasCustomDelete(persister);
+  }
+
+  public static <T> ReactiveJpaEntityMetadata<T> of(
+      Stage.SessionFactory sessionFactory, Class<T> domainClass) {
+    Assert.notNull(sessionFactory, "Stage.SessionFactory must not be null");
+    Assert.notNull(domainClass, "Domain class must not be null");
+
+    EntityPersister persister = null;
+    if (sessionFactory.getMetamodel() instanceof MappingMetamodel mappingMetamodel) {
+      persister = mappingMetamodel.findEntityDescriptor(domainClass);
+    }
+
+    return new ReactiveJpaEntityMetadata<>(domainClass, persister);
+  }
+
+  public Class<T> getDomainClass() {
+    return domainClass;
+  }
+
+  /**
+   * Whether removing an instance has to cascade to associations or notify {@code @PreRemove} /
+   * {@code @PostRemove} callbacks, which a plain {@code DELETE} statement would skip.
+   */
+  public boolean requiresLifecycleOnRemove() {
+    if (persister == null) {
+      return true;
+    }
+
+    return persister.hasCascadeDelete()
+        || hasCallbacks(CallbackType.PRE_REMOVE)
+        || hasCallbacks(CallbackType.POST_REMOVE);
+  }
+
+  /**
+   * Whether removing an instance runs something else than the generated {@code DELETE}: a
+   * {@code @SQLDelete} statement or the {@code UPDATE} of a {@code @SoftDelete} mapping, which only
+   * the persister applies.
+   */
+  public boolean hasCustomDelete() {
+    return customDelete;
+  }
+
+  /**
+   * The maximum number of elements the dialect accepts in an {@code IN} list, or {@code 0} if it is
+   * unbounded.
+   */
+  public int getInExpressionCountLimit() {
+    if (persister == null) {
+      return 0;
+    }
+
+    return getFactory().getJdbcServices().getDialect().getInExpressionCountLimit();
+  }
+
+  public boolean isVersioned() {
+    return persister != null && persister.isVersioned();
+  }
+
+  /** The name of the {@code @Version} attribute, or {@code null} if the entity isn't versioned. */
+  @Nullable
+  public String getVersionAttributeName() {
+    if (!isVersioned()) {
+      return null;
+    }
+
+    return persister.getPropertyNames()[persister.getVersionProperty()];
+  }
+
+  @Nullable
+  public Object getVersion(T entity) {
+    Assert.state(isVersioned(), "Entity is not versioned");
+    return persister.getVersion(entity);
+  }
+
+  protected boolean hasCallbacks(CallbackType callbackType) {
+    CallbackRegistry callbackRegistry = getFactory().getEventEngine().getCallbackRegistry();
+    return callbackRegistry.hasRegisteredCallbacks(domainClass, callbackType);
+  }
+
+  private static boolean hasCustomDelete(EntityPersister persister) {
+    if (persister.getSoftDeleteMapping() != null) {
+      return true;
+    }
+
+    boolean[] customSql = {false};
+    persister.forEachMutableTable(table -> customSql[0] |= table.getDeleteCustomSql() != null);
+    return customSql[0];
+  }
+
+  private SessionFactoryImplementor getFactory() {
+    Assert.state(persister != null, "No EntityPersister available");
+    return persister.getFactory();
+  }
+}
@@ -1,6 +1,8 @@
 package com.htech.data.jpa.reactive.repository.support;
 
+import com.htech.data.jpa.reactive.core.ReactiveJpaDataProperties;
 import com.htech.data.jpa.reactive.core.StageReactiveJpaEntityOperations;
+import com.htech.data.jpa.reactive.repository.query.AbstractReactiveJpaQuery;
 import com.htech.data.jpa.reactive.repository.query.ReactiveJpaQueryLookupStrategy;
 import com.htech.data.jpa.reactive.repository.query.ReactiveJpaQueryMethodFactory;
 import com.htech.data.jpa.reactive.repository.query.ReactiveQueryRewriterProvider;
@@ -32,6 +34,7 @@ public class ReactiveJpaRepositoryFactory extends ReactiveRepositoryFactorySuppo
   protected final EntityManagerFactory entityManagerFactory;
   protected ClassLoader classLoader;
   protected EscapeCharacter escapeCharacter;
+  protected ReactiveJpaDataProperties dataProperties = new ReactiveJpaDataProperties();
 
   protected ReactiveJpaQueryMethodFactory queryMethodFactory;
   protected ReactiveQueryRewriterProvider queryRewriterProvider;
@@ -43,6 +46,9 @@ public class ReactiveJpaRepositoryFactory extends ReactiveRepositoryFactorySuppo
     this.entityOperations = entityOperations;
     this.sessionFactory = sessionFactory;
     this.entityManagerFactory = entityManagerFactory;
+
+    addQueryCreationListener(
+        (AbstractReactiveJpaQuery query) -> query.setEntityOperations(entityOperations));
   }
 
   @Override
@@ -68,6 +74,7 @@ public class ReactiveJpaRepositoryFactory extends ReactiveRepositoryFactorySuppo
     //
     // repository.setRepositoryMethodMetadata(crudMethodMetadataPostProcessor.getCrudMethodMetadata());
     repository.setEscapeCharacter(escapeCharacter);
+    repository.setDataProperties(dataProperties);
 
     return repository;
   }
@@ -109,6 +116,10 @@ public class ReactiveJpaRepositoryFactory extends ReactiveRepositoryFactorySuppo
     this.escapeCharacter = escapeCharacter;
   }
 
+  public void setDataProperties(ReactiveJpaDataProperties dataProperties) {
+    this.dataProperties = dataProperties;
+  }
+
   @Override
   protected Optional<QueryLookupStrategy> getQueryLookupStrategy(
       QueryLookupStrategy.Key key, QueryMethodEvaluationContextProvider evaluationContextProvider) {
@@ -120,7 +131,8 @@ public class ReactiveJpaRepositoryFactory extends ReactiveRepositoryFactorySuppo
             key,
             (ReactiveQueryMethodEvaluationContextProvider) evaluationContextProvider,
             queryRewriterProvider,
-            escapeCharacter));
+            escapeCharacter,
+            dataProperties));
   }
 
   @Override
@@ -1,5 +1,6 @@
 package com.htech.data.jpa.reactive.repository.support;
 
+import com.htech.data.jpa.reactive.core.ReactiveJpaDataProperties;
 import com.htech.data.jpa.reactive.core.StageReactiveJpaEntityOperations;
 import com.htech.data.jpa.reactive.repository.query.DefaultReactiveJpaQueryExtractor;
 import com.htech.data.jpa.reactive.repository.query.ReactiveJpaQueryMethodFactory;
@@ -56,6 +57,10 @@ public class ReactiveJpaRepositoryFactoryBean<
             entityOperations.sessionFactory(),
             applicationContext.getBean("entityManagerFactory", EntityManagerFactory.class));
     factory.setEscapeCharacter(escapeCharacter);
+    factory.setDataProperties(
+        applicationContext
+            .getBeanProvider(ReactiveJpaDataProperties.class)
+            .getIfAvailable(ReactiveJpaDataProperties::new));
     // TODO
     factory.setQueryMethodFactory(
         new ReactiveJpaQueryMethodFactory(new DefaultReactiveJpaQueryExtractor()));
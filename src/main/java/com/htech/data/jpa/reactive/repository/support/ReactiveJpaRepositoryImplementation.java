@@ -1,5 +1,6 @@
 package com.htech.data.jpa.reactive.repository.support;
 
+import com.htech.data.jpa.reactive.core.ReactiveJpaDataProperties;
 import com.htech.data.jpa.reactive.repository.ReactiveJpaRepository;
 import com.htech.data.jpa.reactive.repository.ReactiveJpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.query.EscapeCharacter;
@@ -13,4 +14,6 @@ public interface ReactiveJpaRepositoryImplementation<T, ID>
     extends ReactiveJpaRepository<T, ID>, ReactiveJpaSpecificationExecutor<T> {
 
   default void setEscapeCharacter(EscapeCharacter escapeCharacter) {}
+
+  default void setDataProperties(ReactiveJpaDataProperties dataProperties) {}
 }
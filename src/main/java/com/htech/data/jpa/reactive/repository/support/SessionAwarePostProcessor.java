@@ -5,12 +5,15 @@ import static org.springframework.transaction.reactive.TransactionSynchronizatio
 import com.htech.jpa.reactive.connection.ConnectionHolder;
 import com.htech.jpa.reactive.connection.SessionContextHolder;
 import com.htech.jpa.reactive.connection.TransactionUtils;
+import com.htech.jpa.reactive.connection.VertxContextUtils;
+import io.vertx.core.Context;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.hibernate.reactive.stage.Stage;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.data.repository.core.RepositoryInformation;
 import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+import org.springframework.lang.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -63,17 +66,27 @@ public class SessionAwarePostProcessor implements RepositoryProxyPostProcessor {
     }
 
     private static Mono<Stage.Session> currentSession(Stage.SessionFactory sessionFactory) {
-      return forCurrentTransaction()
-          .mapNotNull(tsm -> tsm.getResource(sessionFactory))
-          .filter(ConnectionHolder.class::isInstance)
-          .onErrorResume(e -> Mono.empty())
-          .map(ConnectionHolder.class::cast)
-          .map(ConnectionHolder::getConnection)
-          .map(Stage.Session.class::cast)
-          .switchIfEmpty(Mono.defer(() -> Mono.fromCompletionStage(sessionFactory.openSession())))
-          .cache();
+      Mono<BoundSession> boundSession =
+          forCurrentTransaction()
+              .mapNotNull(tsm -> tsm.getResource(sessionFactory))
+              .filter(ConnectionHolder.class::isInstance)
+              .onErrorResume(e -> Mono.empty())
+              .map(ConnectionHolder.class::cast)
+              .map(
+                  holder ->
+                      new BoundSession(
+                          (Stage.Session) holder.getConnection(), holder.getVertxContext()))
+              .switchIfEmpty(
+                  Mono.defer(() -> Mono.fromCompletionStage(sessionFactory.openSession()))
+                      .map(s -> new BoundSession(s, VertxContextUtils.currentContext())))
+              .cache();
+
+      // every use of the session resumes on its own event loop
+      return boundSession.flatMap(b -> VertxContextUtils.emitOn(b.context(), b.session()));
     }
 
+    private record BoundSession(Stage.Session session, @Nullable Context context) {}
+
     private static Mono<Object> closeExceptionally(
         Throwable t, Mono<Boolean> transactionAvailable, Mono<Stage.Session> session) {
       return transactionAvailable.flatMap(
@@ -2,36 +2,63 @@ package com.htech.data.jpa.reactive.repository.support;
 
 import static org.springframework.data.jpa.repository.query.QueryUtils.*;
 
+import com.htech.data.jpa.reactive.core.ReactiveJpaDataProperties;
 import com.htech.data.jpa.reactive.core.StageReactiveJpaEntityOperations;
+import com.htech.data.jpa.reactive.mapping.event.AfterLoadCallback;
+import com.htech.data.jpa.reactive.mapping.event.BeforeDeleteCallback;
+import com.htech.data.jpa.reactive.repository.UpdateSpec;
 import com.htech.data.jpa.reactive.repository.query.Jpa21Utils;
+import com.htech.data.jpa.reactive.repository.query.QueryStreamUtils;
 import com.htech.data.jpa.reactive.repository.query.QueryUtils;
+import com.htech.data.jpa.reactive.repository.query.ReactivePageableExecutionUtils;
+import com.htech.data.jpa.reactive.repository.query.ReactiveScrollDelegate;
 import com.htech.jpa.reactive.connection.SessionContextHolder;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.criteria.*;
-import java.io.Serial;
+import jakarta.persistence.metamodel.EntityType;
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
 import org.apache.commons.collections4.IterableUtils;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.reactive.session.ReactiveSession;
 import org.hibernate.reactive.stage.Stage;
+import org.hibernate.reactive.stage.impl.StageSessionImpl;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.query.JpaEntityGraph;
+import org.springframework.data.jpa.repository.query.KeysetScrollSpecification;
 import org.springframework.data.jpa.repository.support.CrudMethodMetadata;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.MutableQueryHints;
 import org.springframework.data.jpa.repository.support.QueryHints;
 import org.springframework.data.jpa.support.PageableUtils;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.data.util.Optionals;
 import org.springframework.data.util.ProxyUtils;
 import org.springframework.data.util.Streamable;
 import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -42,9 +69,24 @@ import reactor.core.publisher.Mono;
 public class SimpleReactiveJpaRepository<T, ID>
     implements ReactiveJpaRepositoryImplementation<T, ID> {
 
+  private static final int COMPOSITE_ID_CHUNK_SIZE = 100;
+
   private final JpaEntityInformation<T, ?> entityInformation;
   private final Stage.SessionFactory sessionFactory;
   private final StageReactiveJpaEntityOperations entityOperations;
+  private final ReactiveJpaEntityMetadata<T> entityMetadata;
+  private final String countQueryString;
+  private final String readAllQueryString;
+  private final String readAllOrderedByIdQueryString;
+  private final Sort idSort;
+  private final @Nullable String existsByIdQueryString;
+  private final @Nullable String readAllByIdQueryString;
+  private final String deleteAllQueryString;
+  private final @Nullable String deleteAllByIdQueryString;
+  private final @Nullable String deleteByIdQueryString;
+  private final @Nullable List<String> compositeIdAttributeNames;
+  private final Map<Integer, String> compositeIdInQueryStrings = new ConcurrentHashMap<>();
+  private ReactiveJpaDataProperties dataProperties = new ReactiveJpaDataProperties();
 
   public SimpleReactiveJpaRepository(
       JpaEntityInformation<T, ?> entityInformation,
@@ -53,6 +95,57 @@ public class SimpleReactiveJpaRepository<T, ID>
     this.entityInformation = entityInformation;
     this.sessionFactory = sessionFactory;
     this.entityOperations = entityOperations;
+    this.entityMetadata = ReactiveJpaEntityMetadata.of(sessionFactory, getDomainClass());
+
+    // the fixed statements are rendered once so that Hibernate's query plan cache keeps hitting
+    String entityName = entityInformation.getEntityName();
+    boolean simpleId =
+        !entityInformation.hasCompositeId() && entityInformation.getIdAttribute() != null;
+    this.countQueryString =
+        getQueryString(String.format(COUNT_QUERY_STRING, "*", "%s"), entityName);
+    this.readAllQueryString = String.format(QueryUtils.READ_ALL_QUERY_STRING, entityName);
+    this.idSort =
+        Sort.by(
+            Streamable.of(entityInformation.getIdAttributeNames()).toList().toArray(String[]::new));
+    this.readAllOrderedByIdQueryString = QueryUtils.applySorting(readAllQueryString, idSort, "x");
+    this.readAllByIdQueryString =
+        simpleId
+            ? readAllQueryString
+                + " where x."
+                + entityInformation.getIdAttribute().getName()
+                + " in :ids"
+            : null;
+    this.deleteAllQueryString = String.format(QueryUtils.DELETE_ALL_QUERY_STRING, entityName);
+    this.deleteAllByIdQueryString =
+        simpleId
+            ? String.format(
+                QueryUtils.DELETE_ALL_QUERY_BY_ID_STRING,
+                entityName,
+                "x." + entityInformation.getIdAttribute().getName())
+            : null;
+    this.deleteByIdQueryString =
+        !simpleId
+            ? null
+            : entityMetadata.isVersioned()
+                ? String.format(
+                    QueryUtils.DELETE_BY_ID_AND_VERSION_QUERY_STRING,
+                    entityName,
+                    entityInformation.getIdAttribute().getName(),
+                    entityMetadata.getVersionAttributeName())
+                : String.format(
+                    QueryUtils.DELETE_BY_ID_QUERY_STRING,
+                    entityName,
+                    entityInformation.getIdAttribute().getName());
+    this.compositeIdAttributeNames =
+        entityInformation.hasCompositeId()
+                && isCompositeIdBindable(entityInformation, sessionFactory)
+            ? Streamable.of(entityInformation.getIdAttributeNames()).toList()
+            : null;
+    this.existsByIdQueryString =
+        simpleId || compositeIdAttributeNames != null
+            ? QueryUtils.getProjectionExistsQueryString(
+                entityName, entityInformation.getIdAttributeNames())
+            : null;
   }
 
   //  public static <T, ID> ReactiveJpaRepositoryImplementation<T, ID> createInstance(
@@ -68,20 +161,14 @@ public class SimpleReactiveJpaRepository<T, ID>
   //    return instance;
   //  }
 
+  @Override
+  public void setDataProperties(ReactiveJpaDataProperties dataProperties) {
+    this.dataProperties = dataProperties;
+  }
+
   @Override
   public <S extends T> Flux<S> findAll() {
-    return SessionContextHolder.currentSession()
-        .zipWhen(__ -> CrudMethodMetadataContextHolder.currentCrudMethodMetadata())
-        .flatMap(
-            t ->
-                Mono.defer(
-                    () -> {
-                      CompletionStage<List<T>> resultList =
-                          getQuery(t.getT1(), null, Sort.unsorted(), t.getT2()).getResultList();
-                      return Mono.fromCompletionStage(resultList);
-                    }))
-        .flatMapMany(Flux::fromIterable)
-        .map(e -> (S) e);
+    return findAll(Sort.unsorted()).map(e -> (S) e);
   }
 
   @Override
@@ -104,7 +191,7 @@ public class SimpleReactiveJpaRepository<T, ID>
                                 session.find(getDomainClass(), id, lockModeType)));
               }
 
-              return rs.map(e -> (S) e);
+              return rs.flatMap(entityOperations::maybeCallAfterLoad).map(e -> (S) e);
             });
   }
 
@@ -147,53 +234,56 @@ public class SimpleReactiveJpaRepository<T, ID>
   }
 
   @Override
-  public Mono<Boolean> existsById(ID id) {
-    if (entityInformation.getIdAttribute() == null) {
-      return findById(id).map(__ -> Boolean.TRUE).defaultIfEmpty(Boolean.FALSE);
-    }
+  public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+    return entityOperations.persist(entityStream);
+  }
 
-    Iterable<String> idAttributeNames = entityInformation.getIdAttributeNames();
-    String entityName = entityInformation.getEntityName();
+  @Override
+  public <S extends T> Flux<S> updateAll(Publisher<S> entityStream) {
+    return entityOperations.updateAll(entityStream);
+  }
 
-    return Mono.zip(
-            SessionContextHolder.currentSession(),
-            Mono.fromSupplier(
-                () -> QueryUtils.getExistsQueryString(entityName, "*", idAttributeNames)))
-        .flatMap(
-            tuple -> {
-              Stage.Session session = tuple.getT1();
-              String existsQuery = tuple.getT2();
-              Stage.SelectionQuery<Long> query = session.createQuery(existsQuery, Long.class);
-              if (!entityInformation.hasCompositeId()) {
-                return Mono.defer(
-                    () -> {
-                      query.setParameter(idAttributeNames.iterator().next(), id);
-                      return Mono.fromCompletionStage(query.getSingleResult())
-                          .defaultIfEmpty(0L)
-                          .map(l -> l.equals(1L));
-                    });
-              }
+  @Override
+  public <S extends T> Mono<S> upsert(S entity) {
+    Assert.notNull(entity, "Entity must not be null");
 
-              for (String idAttributeName : idAttributeNames) {
-                Object idAttributeValue =
-                    entityInformation.getCompositeIdAttributeValue(id, idAttributeName);
+    return entityOperations.upsert(entity);
+  }
 
-                // TODO
-                boolean complexIdParameterValueDiscovered = true /*idAttributeValue != null
-            && !query.getParameter(idAttributeName).getParameterType().isAssignableFrom(idAttributeValue.getClass())*/;
+  @Override
+  public <S extends T> Flux<S> upsertAll(Publisher<S> entityStream) {
+    return entityOperations.upsertAll(entityStream);
+  }
 
-                if (complexIdParameterValueDiscovered) {
-                  // fall-back to findById(id) which does the proper mapping for the parameter.
-                  return findById(id).map(__ -> Boolean.TRUE).defaultIfEmpty(Boolean.FALSE);
-                }
+  @Override
+  public Mono<Boolean> existsById(ID id) {
+    if (existsByIdQueryString == null) {
+      // id attributes whose values can't be bound as they are, let findById(id) map them.
+      return findById(id).map(__ -> Boolean.TRUE).defaultIfEmpty(Boolean.FALSE);
+    }
 
-                query.setParameter(idAttributeName, idAttributeValue);
-              }
+    return SessionContextHolder.currentSession()
+        .flatMap(
+            session ->
+                Mono.defer(
+                    () -> {
+                      Stage.SelectionQuery<Integer> query =
+                          session.createQuery(existsByIdQueryString, Integer.class);
+                      if (compositeIdAttributeNames == null) {
+                        query.setParameter(entityInformation.getIdAttribute().getName(), id);
+                      } else {
+                        for (String idAttributeName : compositeIdAttributeNames) {
+                          query.setParameter(
+                              idAttributeName,
+                              entityInformation.getCompositeIdAttributeValue(id, idAttributeName));
+                        }
+                      }
 
-              return Mono.fromCompletionStage(query.getSingleResult())
-                  .defaultIfEmpty(0L)
-                  .map(l -> l.equals(1L));
-            });
+                      return Mono.fromCompletionStage(
+                          query.setMaxResults(1).getSingleResultOrNull());
+                    }))
+        .map(__ -> Boolean.TRUE)
+        .defaultIfEmpty(Boolean.FALSE);
   }
 
   @Override
@@ -202,10 +292,20 @@ public class SimpleReactiveJpaRepository<T, ID>
       return Flux.empty();
     }
 
-    // IllegalStateException: Illegal pop() with non-matching JdbcValuesSourceProcessingState
     if (entityInformation.hasCompositeId()) {
-      return Flux.concat(
-              StreamSupport.stream(ids.spliterator(), false).map(this::findById).toList())
+      if (compositeIdAttributeNames == null) {
+        return Flux.concat(
+                StreamSupport.stream(ids.spliterator(), false).map(this::findById).toList())
+            .map(e -> (S) e);
+      }
+
+      return SessionContextHolder.currentSession()
+          .flatMapMany(
+              session ->
+                  Flux.fromIterable(ids)
+                      .buffer(getCompositeIdChunkSize())
+                      .concatMap(chunk -> findAllByCompositeId(session, chunk)))
+          .as(this::maybeCallAfterLoad)
           .map(e -> (S) e);
     }
 
@@ -216,17 +316,17 @@ public class SimpleReactiveJpaRepository<T, ID>
                 Mono.defer(
                     () -> {
                       Collection<ID> idCollection = Streamable.of(ids).toList();
-                      ByIdsSpecification<T> specification =
-                          new ByIdsSpecification<>(entityInformation);
                       Stage.SelectionQuery<T> query =
-                          getQuery(t.getT1(), specification, Sort.unsorted(), t.getT2());
+                          applyRepositoryMethodMetadata(
+                              t.getT1().createQuery(readAllByIdQueryString, getDomainClass()),
+                              t.getT1(),
+                              t.getT2());
 
                       return Mono.fromCompletionStage(
-                          query
-                              .setParameter(specification.parameter, idCollection)
-                              .getResultList());
+                          query.setParameter("ids", idCollection).getResultList());
                     }))
         .flatMapMany(Flux::fromIterable)
+        .as(this::maybeCallAfterLoad)
         .map(e -> (S) e);
   }
 
@@ -238,13 +338,29 @@ public class SimpleReactiveJpaRepository<T, ID>
                 Mono.defer(
                     () -> {
                       Stage.SelectionQuery<Long> query =
-                          session.createQuery(getCountQueryString(), Long.class);
+                          session.createQuery(countQueryString, Long.class);
                       return Mono.fromCompletionStage(query.getSingleResult());
                     }));
   }
 
   @Override
   public Mono<Void> deleteById(ID id) {
+    // the version is unknown without loading the entity
+    if (useDirectDelete() && !entityMetadata.isVersioned() && !hasBeforeDeleteCallbacks()) {
+      return SessionContextHolder.currentSession()
+          .zipWhen(__ -> CrudMethodMetadataContextHolder.currentCrudMethodMetadata())
+          .flatMap(
+              t -> {
+                if (t.getT2().getLockModeType() != null) {
+                  return findById(id).flatMap(this::delete);
+                }
+
+                // a managed instance would otherwise be flushed back or returned by find
+                detachManaged(t.getT1(), Set.of(id));
+                return executeDeleteById(t.getT1(), id, null).then();
+              });
+    }
+
     return findById(id).flatMap(this::delete);
   }
 
@@ -254,6 +370,41 @@ public class SimpleReactiveJpaRepository<T, ID>
       return Mono.empty();
     }
 
+    return entityOperations.maybeCallBeforeDelete(entity).flatMap(this::doDelete);
+  }
+
+  private Mono<Void> doDelete(T entity) {
+    if (useDirectDelete()) {
+      return SessionContextHolder.currentSession()
+          .flatMap(
+              session -> {
+                Object id = entityInformation.getId(entity);
+                Object version =
+                    entityMetadata.isVersioned() ? entityMetadata.getVersion(entity) : null;
+                if (session.contains(entity)) {
+                  session.detach(entity);
+                }
+
+                return executeDeleteById(session, id, version)
+                    .flatMap(
+                        deleted -> {
+                          if (deleted > 0 || !entityMetadata.isVersioned()) {
+                            return Mono.empty();
+                          }
+
+                          // no row with that version, it's either gone or has been changed
+                          return existsById((ID) id)
+                              .flatMap(
+                                  exists ->
+                                      exists
+                                          ? Mono.error(
+                                              new ObjectOptimisticLockingFailureException(
+                                                  getDomainClass(), id))
+                                          : Mono.empty());
+                        });
+              });
+    }
+
     return SessionContextHolder.currentSession()
         .flatMap(
             session ->
@@ -284,6 +435,16 @@ public class SimpleReactiveJpaRepository<T, ID>
       return Mono.empty();
     }
 
+    if (useBulkDelete() && deleteAllByIdQueryString != null && !hasBeforeDeleteCallbacks()) {
+      return SessionContextHolder.currentSession()
+          .flatMap(
+              session -> {
+                List<? extends ID> idList = Streamable.of(ids).toList();
+                detachManaged(session, new HashSet<>(idList));
+                return deleteInChunks(session, idList);
+              });
+    }
+
     return Flux.concat(
             StreamSupport.stream(ids.spliterator(), false).map(this::deleteById).toList())
         .then();
@@ -295,6 +456,35 @@ public class SimpleReactiveJpaRepository<T, ID>
       return Mono.empty();
     }
 
+    if (useBulkDelete() && deleteAllByIdQueryString != null) {
+      Mono<? extends Iterable<? extends T>> entitiesToDelete =
+          hasBeforeDeleteCallbacks()
+              ? Flux.fromIterable(entities)
+                  .filter(e -> !entityInformation.isNew(e))
+                  .concatMap(entityOperations::maybeCallBeforeDelete)
+                  .collectList()
+              : Mono.just(entities);
+
+      return Mono.zip(SessionContextHolder.currentSession(), entitiesToDelete)
+          .flatMap(
+              t -> {
+                Stage.Session session = t.getT1();
+                List<Object> ids = new ArrayList<>();
+                for (T entity : t.getT2()) {
+                  if (entityInformation.isNew(entity)) {
+                    continue;
+                  }
+
+                  if (session.contains(entity)) {
+                    session.detach(entity);
+                  }
+                  ids.add(entityInformation.getId(entity));
+                }
+
+                return deleteInChunks(session, ids);
+              });
+    }
+
     return Flux.concat(
             StreamSupport.stream(entities.spliterator(), false).map(this::delete).toList())
         .then();
@@ -302,21 +492,25 @@ public class SimpleReactiveJpaRepository<T, ID>
 
   @Override
   public Mono<Void> deleteAll() {
+    if (useBulkDelete() && !hasBeforeDeleteCallbacks()) {
+      return SessionContextHolder.currentSession()
+          .flatMap(
+              session ->
+                  Mono.defer(
+                      () -> {
+                        detachManaged(session, null);
+                        return Mono.fromCompletionStage(
+                            session.createMutationQuery(deleteAllQueryString).executeUpdate());
+                      }))
+          .then();
+    }
+
     return findAll().concatMap(this::delete).then();
   }
 
   @Override
   public Flux<T> findAll(Sort sort) {
-    return SessionContextHolder.currentSession()
-        .zipWhen(__ -> CrudMethodMetadataContextHolder.currentCrudMethodMetadata())
-        .flatMap(
-            t ->
-                Mono.defer(
-                    () -> {
-                      Stage.SelectionQuery<T> query = getQuery(t.getT1(), null, sort, t.getT2());
-                      return Mono.fromCompletionStage(query.getResultList());
-                    }))
-        .flatMapMany(Flux::fromIterable);
+    return findAll((Specification<T>) null, sort);
   }
 
   @Override
@@ -340,26 +534,21 @@ public class SimpleReactiveJpaRepository<T, ID>
                                 getQuery(t.getT1(), spec, Sort.unsorted(), t.getT2())
                                     .setMaxResults(2)
                                     .getSingleResult())
-                            .onErrorResume(NoResultException.class, e -> Mono.empty())));
+                            .onErrorResume(NoResultException.class, e -> Mono.empty())))
+        .flatMap(entityOperations::maybeCallAfterLoad);
   }
 
   @Override
   public Flux<T> findAll(Specification<T> spec) {
-    return findAll(SessionContextHolder.currentSession(), spec, Pageable.unpaged())
-        .flatMapMany(page -> Flux.fromIterable(page.getContent()));
+    return findAll(spec, Sort.unsorted());
   }
 
   @Override
   public Flux<T> findAll(Specification<T> spec, Sort sort) {
     return SessionContextHolder.currentSession()
         .zipWhen(__ -> CrudMethodMetadataContextHolder.currentCrudMethodMetadata())
-        .flatMap(
-            t ->
-                Mono.defer(
-                    () ->
-                        Mono.fromCompletionStage(
-                            getQuery(t.getT1(), spec, sort, t.getT2()).getResultList())))
-        .flatMapMany(Flux::fromIterable);
+        .flatMapMany(t -> readAll(t.getT1(), spec, sort, t.getT2()))
+        .as(this::maybeCallAfterLoad);
   }
 
   @Override
@@ -373,6 +562,75 @@ public class SimpleReactiveJpaRepository<T, ID>
     return findAll(SessionContextHolder.currentSession(), spec, pageable);
   }
 
+  @Override
+  public Mono<Window<T>> scroll(ScrollPosition scrollPosition, Sort sort, Limit limit) {
+    return scroll(null, scrollPosition, sort, limit);
+  }
+
+  @Override
+  public Mono<Window<T>> scroll(
+      @Nullable Specification<T> spec, ScrollPosition scrollPosition, Sort sort, Limit limit) {
+    Assert.notNull(scrollPosition, "ScrollPosition must not be null");
+    Assert.notNull(sort, "Sort must not be null");
+    Assert.notNull(limit, "Limit must not be null");
+
+    Specification<T> specToUse = spec;
+    Sort sortToUse = sort;
+    if (scrollPosition instanceof KeysetScrollPosition keyset) {
+      KeysetScrollSpecification<T> keysetSpec =
+          new KeysetScrollSpecification<>(keyset, sort, entityInformation);
+      specToUse = spec == null ? keysetSpec : spec.and(keysetSpec);
+      sortToUse = keysetSpec.sort();
+    }
+
+    Specification<T> finalSpec = specToUse;
+    Sort finalSort = sortToUse;
+    return SessionContextHolder.currentSession()
+        .zipWhen(__ -> CrudMethodMetadataContextHolder.currentCrudMethodMetadata())
+        .flatMap(
+            t -> {
+              Stage.SelectionQuery<T> query = getQuery(t.getT1(), finalSpec, finalSort, t.getT2());
+              if (limit.isLimited()) {
+                query.setMaxResults(limit.max());
+              }
+
+              return new ReactiveScrollDelegate<>(entityInformation)
+                  .scroll(query, sort, scrollPosition, this::maybeCallAfterLoad);
+            });
+  }
+
+  @Override
+  public Mono<Slice<T>> findSlice(Pageable pageable) {
+    return findSlice(null, pageable);
+  }
+
+  @Override
+  public Mono<Slice<T>> findSlice(@Nullable Specification<T> spec, Pageable pageable) {
+    return SessionContextHolder.currentSession()
+        .zipWhen(__ -> CrudMethodMetadataContextHolder.currentCrudMethodMetadata())
+        .flatMap(
+            t ->
+                Mono.defer(
+                    () -> {
+                      Stage.SelectionQuery<T> query =
+                          getQuery(t.getT1(), spec, pageable, t.getT2());
+                      if (pageable.isPaged()) {
+                        query.setFirstResult(PageableUtils.getOffsetAsInteger(pageable));
+                      }
+
+                      return Mono.fromCompletionStage(
+                          ReactivePageableExecutionUtils.limitForSlice(query, pageable)
+                              .getResultList());
+                    }))
+        .map(content -> ReactivePageableExecutionUtils.getSlice(content, pageable))
+        .flatMap(
+            slice -> {
+              List<T> content = slice.getContent();
+              return maybeCallAfterLoad(content)
+                  .map(c -> c == content ? slice : new SliceImpl<>(c, pageable, slice.hasNext()));
+            });
+  }
+
   @Override
   public Mono<Long> count(Specification<T> spec) {
     return SessionContextHolder.currentSession()
@@ -428,6 +686,125 @@ public class SimpleReactiveJpaRepository<T, ID>
             });
   }
 
+  @Override
+  public Mono<Long> update(Specification<T> spec, Consumer<UpdateSpec<T>> updates) {
+    Assert.notNull(updates, "Updates must not be null");
+
+    UpdateSpec<T> updateSpec = new UpdateSpec<>();
+    updates.accept(updateSpec);
+    if (updateSpec.getAssignments().isEmpty()) {
+      return Mono.just(0L);
+    }
+
+    return SessionContextHolder.currentSession()
+        .flatMap(
+            session ->
+                executeUpdate(session, spec, updateSpec.getAssignments())
+                    .doOnNext(
+                        __ -> {
+                          if (updateSpec.isEvictManaged()) {
+                            detachManaged(session, null);
+                          }
+                        }));
+  }
+
+  @Override
+  public Mono<Long> patch(ID id, Map<String, Object> values) {
+    Assert.notNull(id, "The given id must not be null");
+    Assert.notNull(values, "Values must not be null");
+
+    if (values.isEmpty()) {
+      return Mono.just(0L);
+    }
+
+    return SessionContextHolder.currentSession()
+        .flatMap(
+            session ->
+                executeUpdate(session, byId(id), values)
+                    .doOnNext(__ -> detachManaged(session, Set.of(id))));
+  }
+
+  private Mono<Long> executeUpdate(
+      Stage.Session session, @Nullable Specification<T> spec, Map<String, Object> assignments) {
+    return Mono.defer(
+        () -> {
+          CriteriaBuilder builder = sessionFactory.getCriteriaBuilder();
+          CriteriaUpdate<T> update = builder.createCriteriaUpdate(getDomainClass());
+          Root<T> root = update.from(getDomainClass());
+
+          assignments.forEach(
+              (attributeName, value) -> update.<Object, Object>set(root.get(attributeName), value));
+
+          String versionAttributeName = entityMetadata.getVersionAttributeName();
+          if (versionAttributeName != null && !assignments.containsKey(versionAttributeName)) {
+            Path<Object> version = root.get(versionAttributeName);
+            Expression<?> nextVersion = nextVersion(builder, version);
+            if (nextVersion != null) {
+              update.<Object>set(version, nextVersion);
+            }
+          }
+
+          if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, null, builder);
+            if (predicate != null) {
+              update.where(predicate);
+            }
+          }
+
+          return Mono.fromCompletionStage(session.createQuery(update).executeUpdate())
+              .map(Integer::longValue);
+        });
+  }
+
+  /** The incremented version, or the current time for timestamp versions. */
+  @Nullable
+  private static Expression<?> nextVersion(CriteriaBuilder builder, Path<?> version) {
+    Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(version.getJavaType());
+    if (Number.class.isAssignableFrom(type)) {
+      return builder.sum((Path<Number>) version, 1);
+    } else if (type == LocalDateTime.class) {
+      return builder.localDateTime();
+    } else if (Date.class.isAssignableFrom(type)) {
+      return builder.currentTimestamp();
+    } else if (type == Instant.class && builder instanceof HibernateCriteriaBuilder hibernate) {
+      return hibernate.currentInstant();
+    }
+    return null;
+  }
+
+  private Specification<T> byId(Object id) {
+    return (root, query, builder) -> {
+      if (compositeIdAttributeNames == null) {
+        return builder.equal(root.get(entityInformation.getRequiredIdAttribute().getName()), id);
+      }
+
+      return builder.and(
+          compositeIdAttributeNames.stream()
+              .map(
+                  name ->
+                      builder.equal(
+                          root.get(name), entityInformation.getCompositeIdAttributeValue(id, name)))
+              .toArray(Predicate[]::new));
+    };
+  }
+
+  /** Detaches the managed instances of the domain type, or only those with one of {@code ids}. */
+  private void detachManaged(Stage.Session session, @Nullable Collection<?> ids) {
+    PersistenceContext persistenceContext =
+        ((StageSessionImpl) session)
+            .unwrap(ReactiveSession.class)
+            .getSharedContract()
+            .getPersistenceContextInternal();
+
+    for (Map.Entry<Object, EntityEntry> e : persistenceContext.reentrantSafeEntityEntries()) {
+      EntityEntry entry = e.getValue();
+      if (getDomainClass().isAssignableFrom(entry.getPersister().getMappedClass())
+          && (ids == null || ids.contains(entry.getId()))) {
+        session.detach(e.getKey());
+      }
+    }
+  }
+
   protected Class<T> getDomainClass() {
     return entityInformation.getJavaType();
   }
@@ -445,7 +822,194 @@ public class SimpleReactiveJpaRepository<T, ID>
                       return pageable.isUnpaged()
                           ? Mono.fromCompletionStage(query.getResultList()).map(PageImpl::new)
                           : readPage(query, getDomainClass(), pageable, spec, t.getT1());
-                    }));
+                    }))
+        .flatMap(
+            page -> {
+              List<T> content = page.getContent();
+              return maybeCallAfterLoad(content)
+                  .map(
+                      c ->
+                          c == content
+                              ? page
+                              : new PageImpl<>(c, page.getPageable(), page.getTotalElements()));
+            });
+  }
+
+  private Flux<T> readAll(
+      Stage.Session session,
+      @Nullable Specification<T> spec,
+      Sort sort,
+      CrudMethodMetadata metadata) {
+    ReactiveJpaDataProperties.Streaming streaming = dataProperties.getStreaming();
+    if (!streaming.isEnabled()) {
+      Stage.SelectionQuery<T> query = getQuery(session, spec, sort, metadata);
+      return Mono.defer(() -> Mono.fromCompletionStage(query.getResultList()))
+          .flatMapMany(Flux::fromIterable);
+    }
+
+    // windows need a unique order, the id breaks ties of the requested one
+    Sort uniqueSort =
+        KeysetScrollSpecification.createSort(ScrollPosition.keyset(), sort, entityInformation);
+    int fetchSize = streaming.getFetchSize();
+    if (!QueryStreamUtils.supportsKeyset(
+        uniqueSort, sessionFactory.getMetamodel().entity(getDomainClass()))) {
+      return QueryStreamUtils.stream(
+          session, getQuery(session, spec, uniqueSort, metadata), fetchSize, getDomainClass());
+    }
+
+    List<String> keys = uniqueSort.stream().map(Sort.Order::getProperty).toList();
+    return QueryStreamUtils.streamKeyset(
+        session,
+        position -> {
+          KeysetScrollSpecification<T> keysetSpec =
+              new KeysetScrollSpecification<>(position, sort, entityInformation);
+          Stage.SelectionQuery<T> query =
+              getQuery(
+                      session,
+                      spec == null ? keysetSpec : spec.and(keysetSpec),
+                      keysetSpec.sort(),
+                      metadata)
+                  .setMaxResults(fetchSize);
+          return Mono.fromCompletionStage(query.getResultList());
+        },
+        entity -> ScrollPosition.forward(entityInformation.getKeyset(keys, entity)),
+        fetchSize,
+        getDomainClass());
+  }
+
+  private Flux<T> findAllByCompositeId(Stage.Session session, List<ID> ids) {
+    return Mono.defer(
+            () -> {
+              Stage.SelectionQuery<T> query =
+                  session.createQuery(
+                      compositeIdInQueryStrings.computeIfAbsent(
+                          ids.size(),
+                          size ->
+                              QueryUtils.getCompositeIdInQueryString(
+                                  entityInformation.getEntityName(),
+                                  compositeIdAttributeNames,
+                                  size)),
+                      getDomainClass());
+              for (int i = 0; i < ids.size(); i++) {
+                for (int j = 0; j < compositeIdAttributeNames.size(); j++) {
+                  query.setParameter(
+                      QueryUtils.getCompositeIdParameterName(i, j),
+                      entityInformation.getCompositeIdAttributeValue(
+                          ids.get(i), compositeIdAttributeNames.get(j)));
+                }
+              }
+
+              return Mono.fromCompletionStage(query.getResultList());
+            })
+        .flatMapMany(Flux::fromIterable);
+  }
+
+  private int getCompositeIdChunkSize() {
+    int inExpressionCountLimit = entityMetadata.getInExpressionCountLimit();
+    if (inExpressionCountLimit <= 0) {
+      return COMPOSITE_ID_CHUNK_SIZE;
+    }
+
+    // the translator may expand every tuple into one bind parameter per id attribute
+    int perTuple = inExpressionCountLimit / compositeIdAttributeNames.size();
+    return Math.max(1, Math.min(COMPOSITE_ID_CHUNK_SIZE, perTuple));
+  }
+
+  /**
+   * Whether every attribute of the id class can be bound directly against the entity attribute of
+   * the same name. Derived identities, where the id class holds the id of an associated entity,
+   * can't.
+   */
+  private static boolean isCompositeIdBindable(
+      JpaEntityInformation<?, ?> entityInformation, Stage.SessionFactory sessionFactory) {
+    Class<?> idType = entityInformation.getIdType();
+    EntityType<?> entityType =
+        sessionFactory.getMetamodel().entity(entityInformation.getJavaType());
+
+    for (String idAttributeName : entityInformation.getIdAttributeNames()) {
+      Field field = ReflectionUtils.findField(idType, idAttributeName);
+      if (field == null) {
+        return false;
+      }
+
+      Class<?> attributeType = entityType.getAttribute(idAttributeName).getJavaType();
+      if (!ClassUtils.isAssignable(attributeType, field.getType())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private boolean useDirectDelete() {
+    return dataProperties.getDirectDelete().isEnabled()
+        && deleteByIdQueryString != null
+        && !entityMetadata.requiresLifecycleOnRemove()
+        && !entityMetadata.hasCustomDelete();
+  }
+
+  private Mono<Integer> executeDeleteById(
+      Stage.Session session, Object id, @Nullable Object version) {
+    return Mono.defer(
+        () -> {
+          Stage.MutationQuery query =
+              session.createMutationQuery(deleteByIdQueryString).setParameter("id", id);
+          if (entityMetadata.isVersioned()) {
+            query.setParameter("version", version);
+          }
+
+          return Mono.fromCompletionStage(query.executeUpdate());
+        });
+  }
+
+  private boolean hasBeforeDeleteCallbacks() {
+    return entityOperations.hasEntityCallbacks(BeforeDeleteCallback.class, getDomainClass());
+  }
+
+  private Flux<T> maybeCallAfterLoad(Flux<T> entities) {
+    return entityOperations.maybeCallAfterLoad(getDomainClass(), entities);
+  }
+
+  private Mono<List<T>> maybeCallAfterLoad(List<T> entities) {
+    if (entities.isEmpty()
+        || !entityOperations.hasEntityCallbacks(AfterLoadCallback.class, getDomainClass())) {
+      return Mono.just(entities);
+    }
+
+    return maybeCallAfterLoad(Flux.fromIterable(entities)).collectList();
+  }
+
+  private boolean useBulkDelete() {
+    ReactiveJpaDataProperties.BulkDelete bulkDelete = dataProperties.getBulkDelete();
+    if (!bulkDelete.isEnabled()) {
+      return false;
+    }
+
+    // a custom @SQLDelete is never bypassed, the lifecycle opt-out only covers cascades and
+    // callbacks
+    return !entityMetadata.hasCustomDelete()
+        && (!bulkDelete.isLifecycleAware() || !entityMetadata.requiresLifecycleOnRemove());
+  }
+
+  private Mono<Void> deleteInChunks(Stage.Session session, List<?> ids) {
+    int chunkSize = dataProperties.getBulkDelete().getChunkSize();
+    int inExpressionCountLimit = entityMetadata.getInExpressionCountLimit();
+    if (inExpressionCountLimit > 0) {
+      chunkSize = Math.min(chunkSize, inExpressionCountLimit);
+    }
+
+    return Flux.fromIterable(ids)
+        .buffer(chunkSize)
+        .concatMap(
+            chunk ->
+                Mono.defer(
+                    () ->
+                        Mono.fromCompletionStage(
+                            session
+                                .createMutationQuery(deleteAllByIdQueryString)
+                                .setParameter("ids", chunk)
+                                .executeUpdate())))
+        .then();
   }
 
   private static Mono<Void> deferRemoving(Stage.Session session, Object e) {
@@ -467,9 +1031,14 @@ public class SimpleReactiveJpaRepository<T, ID>
       query.setMaxResults(pageable.getPageSize());
     }
 
-    return Mono.defer(() -> Mono.fromCompletionStage(query.getResultList()))
-        .zipWhen(__ -> executeCountQuery(getCountQuery(session, spec, javaType)))
-        .map(t -> PageableExecutionUtils.getPage(t.getT1(), pageable, t::getT2));
+    return ReactivePageableExecutionUtils.getPage(
+        Mono.defer(() -> Mono.fromCompletionStage(query.getResultList())),
+        pageable,
+        s ->
+            s.flatMap(
+                countSession -> executeCountQuery(getCountQuery(countSession, spec, javaType))),
+        Mono.just(session),
+        dataProperties.getPaging().isConcurrentCount() ? sessionFactory : null);
   }
 
   protected Stage.SelectionQuery<T> getQuery(
@@ -481,13 +1050,13 @@ public class SimpleReactiveJpaRepository<T, ID>
     return getQuery(session, spec, getDomainClass(), sort, metadata);
   }
 
-  private String getCountQueryString() {
-    String countQuery = String.format(COUNT_QUERY_STRING, "*", "%s");
-    return getQueryString(countQuery, entityInformation.getEntityName());
-  }
-
   protected <S extends T> Stage.SelectionQuery<Long> getCountQuery(
       Stage.Session session, @Nullable Specification<S> spec, Class<S> domainClass) {
+    if (spec == null && domainClass == getDomainClass()) {
+      return applyRepositoryMethodMetadataForCount(
+          session.createQuery(countQueryString, Long.class));
+    }
+
     CriteriaBuilder builder = sessionFactory.getCriteriaBuilder();
     CriteriaQuery<Long> query = builder.createQuery(Long.class);
 
@@ -519,6 +1088,20 @@ public class SimpleReactiveJpaRepository<T, ID>
       Class<S> domainClass,
       Sort sort,
       CrudMethodMetadata metadata) {
+    if (spec == null && domainClass == getDomainClass()) {
+      String queryString = null;
+      if (sort.isUnsorted()) {
+        queryString = readAllQueryString;
+      } else if (sort.equals(idSort)) {
+        queryString = readAllOrderedByIdQueryString;
+      }
+
+      if (queryString != null) {
+        return applyRepositoryMethodMetadata(
+            session.createQuery(queryString, domainClass), session, metadata);
+      }
+    }
+
     CriteriaBuilder builder = sessionFactory.getCriteriaBuilder();
     CriteriaQuery<S> query = builder.createQuery(domainClass);
 
@@ -601,26 +1184,4 @@ public class SimpleReactiveJpaRepository<T, ID>
 
     return root;
   }
-
-  static final class ByIdsSpecification<T> implements Specification<T> {
-
-    @Serial private static final long serialVersionUID = 1L;
-
-    private final JpaEntityInformation<T, ?> entityInformation;
-
-    @Nullable ParameterExpression<Collection<?>> parameter;
-
-    ByIdsSpecification(JpaEntityInformation<T, ?> entityInformation) {
-      this.entityInformation = entityInformation;
-    }
-
-    @Override
-    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-      Path<?> path = root.get(entityInformation.getIdAttribute());
-      parameter =
-          (ParameterExpression<Collection<?>>)
-              (ParameterExpression<?>) cb.parameter(Collection.class);
-      return path.in(parameter);
-    }
-  }
 }
@@ -7,6 +7,7 @@ import com.htech.jpa.reactive.connection.ReactiveHibernateTransactionManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -190,11 +191,24 @@ public class ReactiveHibernateJpaConfiguration {
     if (!vendorProperties.containsKey(JTA_PLATFORM)) {
       configureJtaPlatform(vendorProperties);
     }
+    configureServiceContributors(vendorProperties);
     //    if (!vendorProperties.containsKey(PROVIDER_DISABLES_AUTOCOMMIT)) {
     //      configureProviderDisablesAutocommit(vendorProperties);
     //    }
   }
 
+  private void configureServiceContributors(Map<String, Object> vendorProperties) {
+    List<Object> classLoaders = new ArrayList<>();
+    Object configured = vendorProperties.get(AvailableSettings.CLASSLOADERS);
+    if (configured instanceof Collection<?> collection) {
+      classLoaders.addAll(collection);
+    } else if (configured != null) {
+      classLoaders.add(configured);
+    }
+    classLoaders.add(new ServiceContributorClassLoader(getClass().getClassLoader()));
+    vendorProperties.put(AvailableSettings.CLASSLOADERS, classLoaders);
+  }
+
   private void configureJtaPlatform(Map<String, Object> vendorProperties) throws LinkageError {
     JtaTransactionManager jtaTransactionManager = getJtaTransactionManager();
     // Make sure Hibernate doesn't attempt to auto-detect a JTA platform
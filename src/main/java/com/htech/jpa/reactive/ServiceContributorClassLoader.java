@@ -0,0 +1,42 @@
+package com.htech.jpa.reactive;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.service.spi.ServiceContributor;
+
+/**
+ * Class loader handed to Hibernate through {@link AvailableSettings#CLASSLOADERS} that lists the
+ * {@link ServiceContributor}s of {@value #SERVICE_CONTRIBUTORS} as java services. They are applied
+ * to the service registry of the persistence unit built by {@link
+ * ReactiveHibernateJpaConfiguration} only, not to every Hibernate bootstrap in the JVM as {@code
+ * META-INF/services} would.
+ *
+ * @author Bao.Ngo
+ */
+class ServiceContributorClassLoader extends ClassLoader {
+
+  static final String SERVICE_CONTRIBUTORS =
+      "META-INF/htech/org.hibernate.service.spi.ServiceContributor";
+
+  private static final String SERVICES = "META-INF/services/" + ServiceContributor.class.getName();
+
+  ServiceContributorClassLoader(ClassLoader parent) {
+    super(parent);
+  }
+
+  // everything else is found by the class loaders Hibernate already aggregates
+  @Override
+  public URL getResource(String name) {
+    return SERVICES.equals(name) ? super.getResource(SERVICE_CONTRIBUTORS) : null;
+  }
+
+  @Override
+  public Enumeration<URL> getResources(String name) throws IOException {
+    return SERVICES.equals(name)
+        ? super.getResources(SERVICE_CONTRIBUTORS)
+        : Collections.emptyEnumeration();
+  }
+}
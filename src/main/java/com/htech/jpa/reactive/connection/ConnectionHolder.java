@@ -1,5 +1,6 @@
 package com.htech.jpa.reactive.connection;
 
+import io.vertx.core.Context;
 import org.hibernate.reactive.stage.impl.StageSessionImpl;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.support.ResourceHolderSupport;
@@ -16,6 +17,10 @@ public class ConnectionHolder extends ResourceHolderSupport {
 
   private boolean transactionActive;
 
+  private boolean flushRequired;
+
+  @Nullable private Context vertxContext;
+
   private int savepointCounter = 0;
 
   public ConnectionHolder(StageSessionImpl connection) {
@@ -48,6 +53,25 @@ public class ConnectionHolder extends ResourceHolderSupport {
     return this.currentConnection;
   }
 
+  /** Marks the session as holding writes that have to be flushed before the transaction commits. */
+  public void setFlushRequired(boolean flushRequired) {
+    this.flushRequired = flushRequired;
+  }
+
+  public boolean isFlushRequired() {
+    return this.flushRequired;
+  }
+
+  /** The Vert.x context the session was opened on. */
+  public void setVertxContext(@Nullable Context vertxContext) {
+    this.vertxContext = vertxContext;
+  }
+
+  @Nullable
+  public Context getVertxContext() {
+    return this.vertxContext;
+  }
+
   String nextSavepoint() {
     this.savepointCounter++;
     return SAVEPOINT_NAME_PREFIX + this.savepointCounter;
@@ -65,5 +89,6 @@ public class ConnectionHolder extends ResourceHolderSupport {
   public void clear() {
     super.clear();
     this.transactionActive = false;
+    this.flushRequired = false;
   }
 }
@@ -110,7 +110,9 @@ public class ReactiveHibernateTransactionManager extends AbstractReactiveTransac
                                     + connection
                                     + "] for R2DBC transaction");
                           }
-                          txObject.setConnectionHolder(new ConnectionHolder(connection), true);
+                          ConnectionHolder holder = new ConnectionHolder(connection);
+                          holder.setVertxContext(VertxContextUtils.currentContext());
+                          txObject.setConnectionHolder(holder, true);
                         });
               } else {
                 txObject.getConnectionHolder().setSynchronizedWithTransaction(true);
@@ -222,7 +224,10 @@ public class ReactiveHibernateTransactionManager extends AbstractReactiveTransac
               + "]");
     }
     return txObject
-        .commit() /*.onErrorMap(R2dbcException.class, ex -> translateException("R2DBC commit", ex))*/;
+        .flushIfRequired()
+        .then(
+            txObject
+                .commit()) /*.onErrorMap(R2dbcException.class, ex -> translateException("R2DBC commit", ex))*/;
   }
 
   @Override
@@ -387,10 +392,6 @@ public class ReactiveHibernateTransactionManager extends AbstractReactiveTransac
 
   private static class ConnectionFactoryTransactionObject {
 
-    //    private static final Scheduler SCHEDULER = Schedulers.fromExecutor(command ->
-    // Vertx.vertx().runOnContext(v -> command.run()));
-    //    private static final Scheduler SCHEDULER = Schedulers.boundedElastic();
-
     @Nullable private ConnectionHolder connectionHolder;
 
     private boolean newConnectionHolder;
@@ -454,12 +455,24 @@ public class ReactiveHibernateTransactionManager extends AbstractReactiveTransac
       return Mono.from(getConnectionHolder().getConnection().releaseSavepoint(currentSavepoint));
     }*/
 
+    public Mono<Void> flushIfRequired() {
+      return Mono.defer(
+          () -> {
+            ConnectionHolder holder = getConnectionHolder();
+            if (!holder.isFlushRequired()) {
+              return Mono.empty();
+            }
+
+            holder.setFlushRequired(false);
+            return Mono.fromCompletionStage(holder.getConnection().flush());
+          });
+    }
+
     public Mono<Void> commit() {
       return /*(hasSavepoint() ? Mono.empty() :*/ Mono.defer(
               () -> Mono.just(getConnectionHolder().getConnection().getReactiveConnection()))
           .map(ReactiveConnection::commitTransaction)
           .flatMap(Mono::fromCompletionStage)
-      //              .subscribeOn(SCHEDULER)
       /*)*/ ;
     }
 
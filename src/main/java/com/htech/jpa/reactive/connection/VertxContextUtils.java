@@ -0,0 +1,36 @@
+package com.htech.jpa.reactive.connection;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the work on a session on the Vert.x context its connection belongs to. Hibernate Reactive
+ * completes every stage of a session on that context; emitting the session there as well means the
+ * whole pipeline stays on one event loop instead of bouncing between it and Reactor threads.
+ *
+ * @author Bao.Ngo
+ */
+public class VertxContextUtils {
+
+  private VertxContextUtils() {}
+
+  /** The Vert.x context of the calling thread, {@code null} when not called from one. */
+  @Nullable
+  public static Context currentContext() {
+    return Vertx.currentContext();
+  }
+
+  /**
+   * Emits {@code value} on {@code context}: right away when already running on it, otherwise with a
+   * single hand-over to its event loop.
+   */
+  public static <T> Mono<T> emitOn(@Nullable Context context, T value) {
+    if (context == null || context == Vertx.currentContext()) {
+      return Mono.just(value);
+    }
+
+    return Mono.create(sink -> context.runOnContext(v -> sink.success(value)));
+  }
+}
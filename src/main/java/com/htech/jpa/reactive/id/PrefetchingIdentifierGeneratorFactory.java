@@ -0,0 +1,98 @@
+package com.htech.jpa.reactive.id;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.cfg.MappingSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.reactive.id.impl.ReactiveGeneratorWrapper;
+import org.hibernate.reactive.id.impl.ReactiveIdentifierGeneratorFactory;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * {@link ReactiveIdentifierGeneratorFactory} that backs sequence generated ids with a {@link
+ * PrefetchingSequenceIdentifierGenerator} when {@link #PREFETCH_THRESHOLD} is set. Other
+ * generators, including sequences emulated with a table, are left to Hibernate Reactive.
+ *
+ * @author Bao.Ngo
+ */
+public class PrefetchingIdentifierGeneratorFactory extends ReactiveIdentifierGeneratorFactory {
+
+  /**
+   * Fraction of an id block, between {@code 0} and {@code 1}, left when the next block is fetched.
+   * {@code 0} or less keeps Hibernate Reactive's generator, which only fetches once a block is used
+   * up.
+   */
+  public static final String PREFETCH_THRESHOLD = "htech.reactive.id.prefetch_threshold";
+
+  private final ServiceRegistry serviceRegistry;
+  private final Map<String, SequenceFetchStatistics> statistics = new ConcurrentHashMap<>();
+
+  public PrefetchingIdentifierGeneratorFactory(ServiceRegistry serviceRegistry) {
+    super(serviceRegistry);
+    this.serviceRegistry = serviceRegistry;
+  }
+
+  @Override
+  public Generator augmentWithReactiveGenerator(Generator generator, Type type, Properties params) {
+    double prefetchThreshold = getPrefetchThreshold();
+    if (prefetchThreshold <= 0
+        || !(generator instanceof SequenceStyleGenerator sequenceGenerator)
+        || !(sequenceGenerator.getDatabaseStructure() instanceof SequenceStructure)) {
+      return super.augmentWithReactiveGenerator(generator, type, params);
+    }
+
+    ConfigurationService configuration = serviceRegistry.requireService(ConfigurationService.class);
+    applyDefault(
+        params,
+        PersistentIdentifierGenerator.SCHEMA,
+        MappingSettings.DEFAULT_SCHEMA,
+        configuration);
+    applyDefault(
+        params,
+        PersistentIdentifierGenerator.CATALOG,
+        MappingSettings.DEFAULT_CATALOG,
+        configuration);
+
+    PrefetchingSequenceIdentifierGenerator reactiveGenerator =
+        new PrefetchingSequenceIdentifierGenerator(Math.min(prefetchThreshold, 1));
+    reactiveGenerator.configure(type, params, serviceRegistry);
+    reactiveGenerator.setStatistics(
+        statistics.computeIfAbsent(
+            reactiveGenerator.getSequenceName().render(), SequenceFetchStatistics::new));
+
+    return new ReactiveGeneratorWrapper(reactiveGenerator, (IdentifierGenerator) generator);
+  }
+
+  private double getPrefetchThreshold() {
+    String value =
+        serviceRegistry
+            .requireService(ConfigurationService.class)
+            .getSetting(PREFETCH_THRESHOLD, StandardConverters.STRING);
+    return value == null ? 0 : Double.parseDouble(value.trim());
+  }
+
+  private static void applyDefault(
+      Properties params, String key, String setting, ConfigurationService configuration) {
+    if (!params.containsKey(key)) {
+      String value = configuration.getSetting(setting, StandardConverters.STRING);
+      if (value != null) {
+        params.put(key, value);
+      }
+    }
+  }
+
+  /** Fetch statistics of every sequence backed by a prefetching generator. */
+  public Collection<SequenceFetchStatistics> getStatistics() {
+    return Collections.unmodifiableCollection(statistics.values());
+  }
+}
@@ -0,0 +1,39 @@
+package com.htech.jpa.reactive.id;
+
+import java.util.Map;
+import org.hibernate.boot.registry.StandardServiceInitiator;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.id.factory.IdentifierGeneratorFactory;
+import org.hibernate.service.spi.ServiceContributor;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+
+/**
+ * Replaces Hibernate Reactive's {@link IdentifierGeneratorFactory} with {@link
+ * PrefetchingIdentifierGeneratorFactory}. Contributed initiators are applied after the default ones
+ * and so take precedence.
+ *
+ * @author Bao.Ngo
+ */
+public class PrefetchingIdentifierGeneratorFactoryContributor implements ServiceContributor {
+
+  @Override
+  public void contribute(StandardServiceRegistryBuilder serviceRegistryBuilder) {
+    serviceRegistryBuilder.addInitiator(Initiator.INSTANCE);
+  }
+
+  private static class Initiator implements StandardServiceInitiator<IdentifierGeneratorFactory> {
+
+    static final Initiator INSTANCE = new Initiator();
+
+    @Override
+    public Class<IdentifierGeneratorFactory> getServiceInitiated() {
+      return IdentifierGeneratorFactory.class;
+    }
+
+    @Override
+    public IdentifierGeneratorFactory initiateService(
+        Map<String, Object> configurationValues, ServiceRegistryImplementor registry) {
+      return new PrefetchingIdentifierGeneratorFactory(registry);
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package com.htech.jpa.reactive.id;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.reactive.id.impl.ReactiveSequenceIdentifierGenerator;
+import org.hibernate.reactive.pool.ReactiveConnection;
+import org.hibernate.reactive.pool.ReactiveConnectionPool;
+import org.hibernate.reactive.session.ReactiveConnectionSupplier;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Pooled-lo sequence generator that asks for the next block of ids while the current one is still
+ * being handed out. Each {@code nextval} reserves {@code allocationSize} ids starting at the
+ * returned value; once only {@code prefetchThreshold} of the block is left, the next block is
+ * fetched in the background, so {@code persist} only waits on the sequence when ids are drawn
+ * faster than a round trip.
+ *
+ * <p>The background fetch borrows a connection from the {@link ReactiveConnectionPool} and gives up
+ * when none is free within {@link #PREFETCH_ACQUIRE_TIMEOUT_MILLIS}. A session that runs out of ids
+ * never waits on it: it fetches the next block on its own connection, as Hibernate Reactive does,
+ * so a pool whose connections are all held by sessions waiting for ids cannot stall.
+ *
+ * @author Bao.Ngo
+ */
+public class PrefetchingSequenceIdentifierGenerator extends ReactiveSequenceIdentifierGenerator {
+
+  private static final Log LOG = LogFactory.getLog(PrefetchingSequenceIdentifierGenerator.class);
+
+  static final long PREFETCH_ACQUIRE_TIMEOUT_MILLIS = 50;
+
+  private final double prefetchThreshold;
+  private ServiceRegistry serviceRegistry;
+  private SequenceFetchStatistics statistics;
+
+  // guarded by this
+  private long next;
+  private long limit;
+  private Long spareBlock;
+  private CompletableFuture<Long> pendingBlock;
+  private boolean prefetching;
+
+  public PrefetchingSequenceIdentifierGenerator(double prefetchThreshold) {
+    this.prefetchThreshold = prefetchThreshold;
+  }
+
+  @Override
+  public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+    super.configure(type, params, serviceRegistry);
+    this.serviceRegistry = serviceRegistry;
+    this.statistics = new SequenceFetchStatistics(getSequenceName().render());
+  }
+
+  @Override
+  public CompletionStage<Long> generate(ReactiveConnectionSupplier session, Object entity) {
+    int blockSize = getBlockSize();
+    if (blockSize <= 1) {
+      return super.generate(session, entity);
+    }
+
+    Long id = null;
+    CompletableFuture<Long> block = null;
+    boolean fetch = false;
+    boolean prefetch = false;
+    synchronized (this) {
+      if (next >= limit && spareBlock != null) {
+        install(spareBlock, blockSize);
+        spareBlock = null;
+      }
+
+      if (next < limit) {
+        id = next++;
+        if (limit - next <= blockSize * prefetchThreshold
+            && spareBlock == null
+            && pendingBlock == null
+            && !prefetching) {
+          prefetching = prefetch = true;
+        }
+      } else {
+        if (pendingBlock == null) {
+          pendingBlock = new CompletableFuture<>();
+          fetch = true;
+        }
+        block = pendingBlock;
+      }
+    }
+
+    if (prefetch) {
+      prefetch(blockSize);
+    }
+    if (id != null) {
+      return CompletableFuture.completedFuture(id);
+    }
+
+    if (fetch) {
+      fetch(session, blockSize, block);
+    }
+    if (!block.isDone()) {
+      statistics.recordWait();
+    }
+
+    // the block may be fetched on another session's connection, continue on the caller's context
+    Context context = Vertx.currentContext();
+    CompletableFuture<Long> result = new CompletableFuture<>();
+    block.whenComplete(
+        (hi, e) ->
+            runOnContext(
+                context,
+                () -> {
+                  if (e != null) {
+                    result.completeExceptionally(e);
+                    return;
+                  }
+
+                  generate(session, entity)
+                      .whenComplete(
+                          (generated, t) -> {
+                            if (t != null) {
+                              result.completeExceptionally(t);
+                            } else {
+                              result.complete(generated);
+                            }
+                          });
+                }));
+    return result;
+  }
+
+  /** Fetches the block sessions wait on over the connection of the session that ran out. */
+  private void fetch(
+      ReactiveConnectionSupplier session, int blockSize, CompletableFuture<Long> block) {
+    long start = System.nanoTime();
+    nextHiValue(session)
+        .whenComplete(
+            (hi, e) -> {
+              record(start, hi, e);
+              synchronized (this) {
+                pendingBlock = null;
+                if (e == null) {
+                  offer(hi, blockSize);
+                }
+              }
+
+              if (e != null) {
+                block.completeExceptionally(e);
+              } else {
+                block.complete(hi);
+              }
+            });
+  }
+
+  private void prefetch(int blockSize) {
+    long start = System.nanoTime();
+    CompletableFuture<ReactiveConnection> acquire;
+    try {
+      acquire = getConnectionPool().getConnection().toCompletableFuture();
+    } catch (RuntimeException e) {
+      acquire = CompletableFuture.failedFuture(e);
+    }
+
+    CompletableFuture<ReactiveConnection> acquired = acquire;
+    acquired
+        .copy()
+        .completeOnTimeout(null, PREFETCH_ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+        .thenCompose(
+            connection -> {
+              if (connection == null) {
+                // waiting in line would take a connection from the sessions that need it
+                acquired.thenAccept(ReactiveConnection::close);
+                return CompletableFuture.<Long>completedFuture(null);
+              }
+              return nextHiValue(() -> connection).whenComplete((hi, e) -> connection.close());
+            })
+        .whenComplete(
+            (hi, e) -> {
+              if (hi == null && e == null) {
+                statistics.recordSkip();
+              } else {
+                record(start, hi, e);
+              }
+              synchronized (this) {
+                prefetching = false;
+                if (hi != null) {
+                  offer(hi, blockSize);
+                }
+              }
+            });
+  }
+
+  // guarded by this
+  private void offer(long hi, int blockSize) {
+    if (next >= limit) {
+      install(hi, blockSize);
+    } else if (spareBlock == null) {
+      spareBlock = hi;
+    }
+    // else a third block, left unused: pooled-lo ids may have gaps
+  }
+
+  // guarded by this
+  private void install(long hi, int blockSize) {
+    next = hi;
+    limit = hi + blockSize;
+  }
+
+  private void record(long start, Long hi, Throwable e) {
+    if (e != null) {
+      statistics.recordFailure();
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Failed to fetch ids from " + statistics.getSequenceName(), e);
+      }
+      return;
+    }
+
+    long nanos = System.nanoTime() - start;
+    statistics.recordFetch(nanos);
+    if (LOG.isTraceEnabled()) {
+      LOG.trace(
+          "Fetched ids from "
+              + statistics.getSequenceName()
+              + " starting at "
+              + hi
+              + " in "
+              + nanos / 1_000
+              + "us");
+    }
+  }
+
+  ReactiveConnectionPool getConnectionPool() {
+    return serviceRegistry.requireService(ReactiveConnectionPool.class);
+  }
+
+  private static void runOnContext(Context context, Runnable action) {
+    if (context == null || context == Vertx.currentContext()) {
+      action.run();
+    } else {
+      context.runOnContext(v -> action.run());
+    }
+  }
+
+  public SequenceFetchStatistics getStatistics() {
+    return statistics;
+  }
+
+  void setStatistics(SequenceFetchStatistics statistics) {
+    this.statistics = statistics;
+  }
+}
@@ -0,0 +1,100 @@
+package com.htech.jpa.reactive.id;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Round trips made for a sequence by {@link PrefetchingSequenceIdentifierGenerator}: how many
+ * blocks were fetched, how long the fetches took and how often id generation had to wait for one.
+ *
+ * @author Bao.Ngo
+ */
+public class SequenceFetchStatistics {
+
+  private final String sequenceName;
+  private final LongAdder fetches = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder waits = new LongAdder();
+  private final LongAdder skips = new LongAdder();
+  private final LongAdder fetchNanos = new LongAdder();
+  private final LongAccumulator maxFetchNanos = new LongAccumulator(Math::max, 0);
+
+  SequenceFetchStatistics(String sequenceName) {
+    this.sequenceName = sequenceName;
+  }
+
+  void recordFetch(long nanos) {
+    fetches.increment();
+    fetchNanos.add(nanos);
+    maxFetchNanos.accumulate(nanos);
+  }
+
+  void recordFailure() {
+    failures.increment();
+  }
+
+  void recordWait() {
+    waits.increment();
+  }
+
+  void recordSkip() {
+    skips.increment();
+  }
+
+  public String getSequenceName() {
+    return sequenceName;
+  }
+
+  /** Number of id blocks fetched from the sequence. */
+  public long getFetchCount() {
+    return fetches.sum();
+  }
+
+  /** Number of fetches that failed. */
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  /** Number of times id generation had to wait for a block, ideally close to zero. */
+  public long getWaitCount() {
+    return waits.sum();
+  }
+
+  /** Number of background fetches given up because the pool had no connection to spare. */
+  public long getSkipCount() {
+    return skips.sum();
+  }
+
+  public Duration getTotalFetchTime() {
+    return Duration.ofNanos(fetchNanos.sum());
+  }
+
+  public Duration getMaxFetchTime() {
+    return Duration.ofNanos(maxFetchNanos.get());
+  }
+
+  public Duration getAverageFetchTime() {
+    long count = fetches.sum();
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(fetchNanos.sum() / count);
+  }
+
+  @Override
+  public String toString() {
+    return "SequenceFetchStatistics{sequence="
+        + sequenceName
+        + ", fetches="
+        + getFetchCount()
+        + ", failures="
+        + getFailureCount()
+        + ", waits="
+        + getWaitCount()
+        + ", skips="
+        + getSkipCount()
+        + ", avg="
+        + getAverageFetchTime()
+        + ", max="
+        + getMaxFetchTime()
+        + '}';
+  }
+}
@@ -0,0 +1,240 @@
+package com.htech.data.jpa.reactive.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import org.hibernate.LockMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.TypeHelper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * @author Bao.Ngo
+ */
+class DirtyColumnUpdaterTest {
+
+  private static SessionFactory sessionFactory;
+
+  private final DirtyColumnUpdater updater = new DirtyColumnUpdater();
+  private SessionImplementor session;
+
+  @BeforeAll
+  static void setUpSessionFactory() {
+    sessionFactory =
+        new MetadataSources(
+                new StandardServiceRegistryBuilder()
+                    .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                    .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                    .build())
+            .addAnnotatedClass(Tag.class)
+            .addAnnotatedClass(Post.class)
+            .addAnnotatedClass(Note.class)
+            .buildMetadata()
+            .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void closeSessionFactory() {
+    sessionFactory.close();
+  }
+
+  @BeforeEach
+  void openSession() {
+    session = (SessionImplementor) sessionFactory.openSession();
+  }
+
+  @AfterEach
+  void closeSession() {
+    session.close();
+  }
+
+  @Test
+  void groupsEntitiesBySetOfChangedColumns() {
+    Tag first = manage(new Tag(1L, "a", 1));
+    Tag second = manage(new Tag(2L, "b", 1));
+    Tag third = manage(new Tag(3L, "c", 1));
+    Tag fourth = manage(new Tag(4L, "d", 1));
+
+    first.title = "a2";
+    second.title = "b2";
+    third.title = "c2";
+    third.priority = 2;
+
+    List<DirtyColumnUpdater.Statement> statements =
+        new ArrayList<>(updater.prepare(session, List.of(first, second, third, fourth)));
+
+    assertThat(statements).hasSize(2);
+    assertThat(statements.get(0).getSql()).isEqualTo("update Tag set title=? where id=?");
+    assertThat(statements.get(0).size()).isEqualTo(2);
+    assertThat(statements.get(1).getSql())
+        .isEqualTo("update Tag set priority=?, title=? where id=?");
+    assertThat(statements.get(1).size()).isEqualTo(1);
+  }
+
+  @Test
+  void checksAndIncrementsTheVersion() {
+    Post post = manage(new Post(1L, "a"));
+    post.title = "b";
+
+    DirtyColumnUpdater.Statement statement = single(updater.prepare(session, List.of(post)));
+
+    assertThat(statement.getSql())
+        .isEqualTo("update Post set title=?, version=? where id=? and version=?");
+    assertThatThrownBy(() -> statement.verify(new int[] {0}))
+        .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+    statement.verify(new int[] {1});
+    statement.complete();
+
+    assertThat(post.version).isEqualTo(1L);
+    assertThat(session.getPersistenceContext().getEntry(post).getVersion()).isEqualTo(1L);
+  }
+
+  @Test
+  void leavesNothingToFlushOnceCompleted() {
+    Post post = manage(new Post(1L, "a"));
+    post.title = "b";
+
+    single(updater.prepare(session, List.of(post))).complete();
+
+    assertThat(updater.prepare(session, List.of(post))).isEmpty();
+  }
+
+  @Test
+  void keepsMutableValuesApartFromTheLoadedState() {
+    Tag tag = manage(new Tag(1L, "a", 1));
+    tag.title = "b";
+    tag.publishedAt = new Date(0);
+
+    single(updater.prepare(session, List.of(tag))).complete();
+    tag.publishedAt.setTime(1000);
+
+    assertThat(single(updater.prepare(session, List.of(tag))).getSql())
+        .isEqualTo("update Tag set publishedAt=? where id=?");
+  }
+
+  @Test
+  void appliesWriteExpressionsAndRunsPostUpdateCallbacks() {
+    Note note = manage(new Note(1L, "a"));
+    note.text = "b";
+
+    DirtyColumnUpdater.Statement statement = single(updater.prepare(session, List.of(note)));
+
+    assertThat(statement.getSql()).isEqualTo("update Note set text=upper(?) where id=?");
+    assertThat(note.postUpdates).isZero();
+
+    statement.complete();
+
+    assertThat(note.postUpdates).isEqualTo(1);
+  }
+
+  private <T> T manage(T entity) {
+    EntityPersister persister =
+        session.getFactory().getMappingMetamodel().getEntityDescriptor(entity.getClass());
+    Object id = persister.getIdentifier(entity, session);
+    Object[] state = persister.getValues(entity);
+    Object[] loadedState = state.clone();
+    TypeHelper.deepCopy(
+        state,
+        persister.getPropertyTypes(),
+        persister.getPropertyUpdateability(),
+        loadedState,
+        session);
+
+    session
+        .getPersistenceContext()
+        .addEntity(
+            entity,
+            Status.MANAGED,
+            loadedState,
+            session.generateEntityKey(id, persister),
+            persister.getVersion(entity),
+            LockMode.NONE,
+            true,
+            persister,
+            false);
+    return entity;
+  }
+
+  private static DirtyColumnUpdater.Statement single(
+      Collection<DirtyColumnUpdater.Statement> statements) {
+    assertThat(statements).hasSize(1);
+    return statements.iterator().next();
+  }
+
+  @Entity(name = "Tag")
+  static class Tag {
+
+    @Id Long id;
+    String title;
+    int priority;
+    Date publishedAt;
+
+    Tag() {}
+
+    Tag(Long id, String title, int priority) {
+      this.id = id;
+      this.title = title;
+      this.priority = priority;
+    }
+  }
+
+  @Entity(name = "Post")
+  static class Post {
+
+    @Id Long id;
+    String title;
+    @Version Long version;
+
+    Post() {}
+
+    Post(Long id, String title) {
+      this.id = id;
+      this.title = title;
+      this.version = 0L;
+    }
+  }
+
+  @Entity(name = "Note")
+  static class Note {
+
+    @Id Long id;
+
+    @ColumnTransformer(write = "upper(?)")
+    String text;
+
+    @Transient int postUpdates;
+
+    Note() {}
+
+    Note(Long id, String text) {
+      this.id = id;
+      this.text = text;
+    }
+
+    @PostUpdate
+    void postUpdate() {
+      postUpdates++;
+    }
+  }
+}
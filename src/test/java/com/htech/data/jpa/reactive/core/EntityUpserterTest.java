@@ -0,0 +1,227 @@
+package com.htech.data.jpa.reactive.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.hibernate.LockMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.reactive.query.ReactiveMutationQuery;
+import org.hibernate.reactive.session.ReactiveSession;
+import org.hibernate.reactive.stage.Stage;
+import org.hibernate.reactive.stage.impl.StageSessionImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Upserts through a session that records the HQL and arguments of the statements it is given.
+ *
+ * @author Bao.Ngo
+ */
+class EntityUpserterTest {
+
+  private static SessionFactory sessionFactory;
+
+  private final EntityUpserter upserter = new EntityUpserter();
+  private final List<String> statements = new ArrayList<>();
+  private final List<Object> arguments = new ArrayList<>();
+  private SessionImplementor delegate;
+  private Stage.Session session;
+
+  @BeforeAll
+  static void setUpSessionFactory() {
+    sessionFactory =
+        new MetadataSources(
+                new StandardServiceRegistryBuilder()
+                    .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                    .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                    .build())
+            .addAnnotatedClass(Tag.class)
+            .addAnnotatedClass(Post.class)
+            .addAnnotatedClass(Comment.class)
+            .buildMetadata()
+            .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void closeSessionFactory() {
+    sessionFactory.close();
+  }
+
+  @BeforeEach
+  void openSession() {
+    delegate = (SessionImplementor) sessionFactory.openSession();
+    session = new StageSessionImpl(recordingSession());
+  }
+
+  @AfterEach
+  void closeSession() {
+    delegate.close();
+  }
+
+  @Test
+  void rendersOneInsertOnConflictPerChunk() {
+    List<Object> rest =
+        upserter.upsert(session, List.of(new Tag(1L, "a", 1), new Tag(2L, "b", 2))).block();
+
+    assertThat(rest).isEmpty();
+    assertThat(statements)
+        .containsExactly(
+            "insert into Tag (id, priority, title) values (?1, ?2, ?3), (?4, ?5, ?6)"
+                + " on conflict (id) do update set priority = excluded.priority,"
+                + " title = excluded.title");
+    assertThat(arguments).containsExactly(1L, 1, "a", 2L, 2, "b");
+
+    // the statement is valid HQL for the dialect
+    delegate.createMutationQuery(statements.get(0));
+  }
+
+  @Test
+  void returnsWhatItCannotWriteToBeMerged() {
+    Tag withoutId = new Tag(null, "a", 1);
+    Post versioned = new Post(1L, "a");
+    Comment withAssociation = new Comment(1L, null);
+
+    List<Object> rest =
+        upserter.upsert(session, List.of(withoutId, versioned, withAssociation)).block();
+
+    assertThat(rest).containsExactly(withoutId, versioned, withAssociation);
+    assertThat(statements).isEmpty();
+  }
+
+  @Test
+  void detachesManagedInstancesOfUpsertedRows() {
+    Tag managed = manage(new Tag(1L, "a", 1));
+    Tag other = manage(new Tag(2L, "b", 2));
+
+    upserter.upsert(session, List.of(new Tag(1L, "c", 3))).block();
+
+    assertThat(delegate.contains(managed)).isFalse();
+    assertThat(delegate.contains(other)).isTrue();
+  }
+
+  private <T> T manage(T entity) {
+    EntityPersister persister =
+        delegate.getFactory().getMappingMetamodel().getEntityDescriptor(entity.getClass());
+    Object id = persister.getIdentifier(entity, delegate);
+    delegate
+        .getPersistenceContext()
+        .addEntity(
+            entity,
+            Status.MANAGED,
+            persister.getValues(entity),
+            delegate.generateEntityKey(id, persister),
+            null,
+            LockMode.NONE,
+            true,
+            persister,
+            false);
+    return entity;
+  }
+
+  private ReactiveSession recordingSession() {
+    return (ReactiveSession)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {ReactiveSession.class, SessionImplementor.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getSharedContract")) {
+                return delegate;
+              }
+              if (method.getName().equals("createReactiveMutationQuery")) {
+                statements.add((String) args[0]);
+                return recordingQuery();
+              }
+              return invoke(delegate, method, args);
+            });
+  }
+
+  private ReactiveMutationQuery<?> recordingQuery() {
+    return (ReactiveMutationQuery<?>)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {ReactiveMutationQuery.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("setParameter")) {
+                arguments.add(args[1]);
+                return proxy;
+              }
+              if (method.getName().equals("executeReactiveUpdate")) {
+                return CompletableFuture.completedFuture(1);
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return target
+          .getClass()
+          .getMethod(method.getName(), method.getParameterTypes())
+          .invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Entity(name = "Tag")
+  static class Tag {
+
+    @Id Long id;
+    String title;
+    int priority;
+
+    Tag() {}
+
+    Tag(Long id, String title, int priority) {
+      this.id = id;
+      this.title = title;
+      this.priority = priority;
+    }
+  }
+
+  @Entity(name = "Post")
+  static class Post {
+
+    @Id Long id;
+    String title;
+    @Version Long version;
+
+    Post() {}
+
+    Post(Long id, String title) {
+      this.id = id;
+      this.title = title;
+    }
+  }
+
+  @Entity(name = "Comment")
+  static class Comment {
+
+    @Id Long id;
+    @ManyToOne Post post;
+
+    Comment() {}
+
+    Comment(Long id, Post post) {
+      this.id = id;
+      this.post = post;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bao.Ngo
+ */
+class CountQueryOptimizerTest {
+
+  private static SessionFactory sessionFactory;
+  private static CountQueryOptimizer optimizer;
+
+  @BeforeAll
+  static void setUpSessionFactory() {
+    sessionFactory =
+        new MetadataSources(
+                new StandardServiceRegistryBuilder()
+                    .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                    .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                    .build())
+            .addAnnotatedClass(Author.class)
+            .addAnnotatedClass(Post.class)
+            .buildMetadata()
+            .buildSessionFactory();
+    optimizer = new CountQueryOptimizer(sessionFactory.getMetamodel());
+  }
+
+  @AfterAll
+  static void closeSessionFactory() {
+    sessionFactory.close();
+  }
+
+  @Test
+  void dropsToOneLeftJoinsNothingElseRefersTo() {
+    assertThat(countQuery("select p from Post p left join p.author a where p.rank > 1"))
+        .isEqualTo("select count(p) from Post p where p.rank > 1");
+  }
+
+  @Test
+  void keepsJoinsReferencedByWhereOrHaving() {
+    assertThat(countQuery("select p from Post p left join p.author a where a.name = :name"))
+        .isEqualTo("select count(p) from Post p left join p.author a where a.name = :name");
+    assertThat(
+            countQuery(
+                "select p from Post p left join p.author a group by p.id having count(a) > 1"))
+        .isEqualTo(
+            "select count(p) from Post p left join p.author a group by p.id having count(a) > 1");
+  }
+
+  @Test
+  void keepsJoinsTheDistinctProjectionDependsOn() {
+    assertThat(countQuery("select distinct a from Post p left join p.author a"))
+        .isEqualTo("select count(distinct a) from Post p left join p.author a");
+  }
+
+  @Test
+  void countsCollectionFetchJoinsAsPlainJoins() {
+    assertThat(countQuery("select a from Author a left join fetch a.posts p"))
+        .isEqualTo("select count(a) from Author a");
+    assertThat(countQuery("select a from Author a left join fetch a.posts p where p.rank > 1"))
+        .isEqualTo("select count(a) from Author a left join a.posts p where p.rank > 1");
+    // a plain collection join repeats its root, it stays
+    assertThat(countQuery("select a from Author a left join a.posts p"))
+        .isEqualTo("select count(a) from Author a left join a.posts p");
+  }
+
+  private static String countQuery(String query) {
+    return optimizer.optimize(
+        query, DeclaredQuery.of(query, false).deriveCountQuery(null, null).getQueryString());
+  }
+
+  @Entity(name = "Author")
+  static class Author {
+
+    @Id Long id;
+    String name;
+
+    @OneToMany(mappedBy = "author")
+    List<Post> posts;
+  }
+
+  @Entity(name = "Post")
+  static class Post {
+
+    @Id Long id;
+    int rank;
+    @ManyToOne Author author;
+  }
+}
@@ -0,0 +1,120 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bao.Ngo
+ */
+class JSqlParserQueryEnhancerTest {
+
+  @Test
+  void dropsLeftJoinsNothingElseRefersTo() {
+    assertThat(
+            countQuery(
+                "select distinct u.id from users u left join orders o on o.user_id = u.id"
+                    + " where u.active = true"))
+        .isEqualTo("SELECT count(DISTINCT u.id) FROM users u WHERE u.active = true");
+  }
+
+  @Test
+  void dropsChainedLeftJoinsFromTheLast() {
+    assertThat(
+            countQuery(
+                "select distinct u.id from users u left join orders o on o.user_id = u.id"
+                    + " left join items i on i.order_id = o.id"))
+        .isEqualTo("SELECT count(DISTINCT u.id) FROM users u");
+  }
+
+  @Test
+  void keepsLeftJoinsReferencedOutsideTheirOnClause() {
+    assertThat(
+            countQuery(
+                "select distinct u.id from users u left join orders o on o.user_id = u.id"
+                    + " where \"o\".total > 10"))
+        .isEqualTo(
+            "SELECT count(DISTINCT u.id) FROM users u LEFT JOIN orders o ON o.user_id = u.id"
+                + " WHERE \"o\".total > 10");
+    assertThat(
+            countQuery(
+                "select distinct u.id from users u left join orders o on o.user_id = u.id"
+                    + " join items i on i.order_id = o.id"))
+        .isEqualTo(
+            "SELECT count(DISTINCT u.id) FROM users u LEFT JOIN orders o ON o.user_id = u.id"
+                + " JOIN items i ON i.order_id = o.id");
+  }
+
+  @Test
+  void keepsLeftJoinsWhenAColumnIsUnqualified() {
+    assertThat(
+            countQuery(
+                "select distinct u.id from users u left join orders o on o.user_id = u.id"
+                    + " where status = 'OPEN'"))
+        .isEqualTo(
+            "SELECT count(DISTINCT u.id) FROM users u LEFT JOIN orders o ON o.user_id = u.id"
+                + " WHERE status = 'OPEN'");
+  }
+
+  @Test
+  void keepsLeftJoinsWhenASubqueryMayReferToThem() {
+    assertThat(
+            countQuery(
+                "select distinct u.id from users u left join orders o on o.user_id = u.id"
+                    + " where exists (select 1 from refunds r where r.order_id = o.id)"))
+        .isEqualTo(
+            "SELECT count(DISTINCT u.id) FROM users u LEFT JOIN orders o ON o.user_id = u.id"
+                + " WHERE EXISTS (SELECT 1 FROM refunds r WHERE r.order_id = o.id)");
+  }
+
+  @Test
+  void keepsJoinsOfQueriesSelectingFromJoinedTables() {
+    assertThat(
+            countQuery(
+                "select distinct u.id, o.id from users u left join orders o on o.user_id = u.id"))
+        .isEqualTo(
+            "SELECT count(*) FROM (SELECT DISTINCT u.id, o.id FROM users u"
+                + " LEFT JOIN orders o ON o.user_id = u.id) count_query");
+  }
+
+  @Test
+  void countsWithoutOrderBy() {
+    assertThat(countQuery("select u.name from users u where u.active = true order by u.name"))
+        .isEqualTo("SELECT count(*) FROM users u WHERE u.active = true");
+  }
+
+  @Test
+  void countsGroupedLimitedAndCombinedQueriesThroughASubquery() {
+    assertThat(countQuery("select u.team, count(*) from users u group by u.team"))
+        .isEqualTo(
+            "SELECT count(*) FROM (SELECT u.team, count(*) FROM users u GROUP BY u.team)"
+                + " count_query");
+    assertThat(countQuery("select u.name from users u order by u.name limit 10"))
+        .isEqualTo("SELECT count(*) FROM (SELECT u.name FROM users u LIMIT 10) count_query");
+    assertThat(countQuery("select u.name from users u union select a.name from admins a"))
+        .isEqualTo(
+            "SELECT count(*) FROM (SELECT u.name FROM users u UNION SELECT a.name FROM admins a)"
+                + " count_query");
+  }
+
+  @Test
+  void countsDistinctRowsOfSeveralColumnsThroughASubquery() {
+    assertThat(countQuery("select distinct u.name, u.team from users u"))
+        .isEqualTo(
+            "SELECT count(*) FROM (SELECT DISTINCT u.name, u.team FROM users u) count_query");
+  }
+
+  @Test
+  void appliesTheCountProjection() {
+    assertThat(
+            JSqlParserQueryEnhancer.forNative(
+                    DeclaredQuery.of("select distinct u.name, u.team from users u", true))
+                .createCountQueryFor("u.id"))
+        .isEqualTo("SELECT count(u.id) FROM users u");
+  }
+
+  private static String countQuery(String query) {
+    return JSqlParserQueryEnhancer.forNative(DeclaredQuery.of(query, true))
+        .createCountQueryFor(null);
+  }
+}
@@ -0,0 +1,102 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.metamodel.EntityType;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bao.Ngo
+ */
+class QueryStreamUtilsTest {
+
+  private static SessionFactory sessionFactory;
+
+  @BeforeAll
+  static void setUpSessionFactory() {
+    sessionFactory =
+        new MetadataSources(
+                new StandardServiceRegistryBuilder()
+                    .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                    .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                    .build())
+            .addAnnotatedClass(Author.class)
+            .addAnnotatedClass(Post.class)
+            .buildMetadata()
+            .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void closeSessionFactory() {
+    sessionFactory.close();
+  }
+
+  @Test
+  void streamsQueriesSelectingTheirRootInWindows() {
+    assertThat(supportsOffsetWindows("select p from Post p where p.title = :title order by p.rank"))
+        .isTrue();
+    assertThat(supportsOffsetWindows("from Post p order by p.rank")).isTrue();
+    assertThat(supportsOffsetWindows("select distinct p from Post p join p.author a")).isTrue();
+    assertThat(supportsOffsetWindows("select p from Post p left join fetch p.author a")).isTrue();
+  }
+
+  @Test
+  void readsProjectionsAndOtherRootsAtOnce() {
+    assertThat(supportsOffsetWindows("select p.title from Post p order by p.rank")).isFalse();
+    assertThat(supportsOffsetWindows("select p, a from Post p join p.author a")).isFalse();
+    assertThat(supportsOffsetWindows("select a from Post p join p.author a")).isFalse();
+    assertThat(supportsOffsetWindows("select p from Author a, Post p")).isFalse();
+    assertThat(supportsOffsetWindows("select p from Post p group by p")).isFalse();
+  }
+
+  @Test
+  void readsCollectionFetchJoinsAtOnce() {
+    assertThat(
+            QueryStreamUtils.supportsOffsetWindows(
+                "select a from Author a left join fetch a.posts order by a.name",
+                "a",
+                entity(Author.class)))
+        .isFalse();
+    assertThat(
+            QueryStreamUtils.supportsOffsetWindows(
+                "select a from Author a join a.posts p where p.rank > 1 order by a.name",
+                "a",
+                entity(Author.class)))
+        .isTrue();
+  }
+
+  private static boolean supportsOffsetWindows(String query) {
+    return QueryStreamUtils.supportsOffsetWindows(query, "p", entity(Post.class));
+  }
+
+  private static EntityType<?> entity(Class<?> type) {
+    return sessionFactory.getMetamodel().entity(type);
+  }
+
+  @Entity(name = "Author")
+  static class Author {
+    @Id Long id;
+    String name;
+
+    @OneToMany(mappedBy = "author")
+    List<Post> posts;
+  }
+
+  @Entity(name = "Post")
+  static class Post {
+    @Id Long id;
+    String title;
+    int rank;
+    @ManyToOne Author author;
+  }
+}
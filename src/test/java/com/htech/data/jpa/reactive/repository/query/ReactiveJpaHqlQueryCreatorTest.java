@@ -0,0 +1,390 @@
+package com.htech.data.jpa.reactive.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.query.CommonQueryContract;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.SelectionQuery;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.ParametersSource;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.repository.query.parser.PartTree;
+
+/**
+ * Runs derived queries rendered to HQL and built as criteria against a connection that records the
+ * SQL and bound values, which have to be the same for both.
+ *
+ * @author Bao.Ngo
+ */
+class ReactiveJpaHqlQueryCreatorTest {
+
+  private static final List<String> executed = new ArrayList<>();
+  private static SessionFactory sessionFactory;
+
+  @BeforeAll
+  static void setUpSessionFactory() {
+    sessionFactory =
+        new MetadataSources(
+                new StandardServiceRegistryBuilder()
+                    .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                    .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                    .applySetting("hibernate.connection.provider_class", new RecordingProvider())
+                    .build())
+            .addAnnotatedClass(Address.class)
+            .addAnnotatedClass(Author.class)
+            .addAnnotatedClass(Post.class)
+            .buildMetadata()
+            .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void closeSessionFactory() {
+    sessionFactory.close();
+  }
+
+  @BeforeEach
+  void clearExecuted() {
+    executed.clear();
+  }
+
+  @Test
+  void escapesLikeArguments() {
+    List<String> sql = assertSameAsCriteria("findByTitleContaining", "50%_off");
+
+    assertThat(sql.get(0)).contains(" like ? escape '\\'");
+    assertThat(sql.get(1)).isEqualTo("1=%50\\%\\_off%");
+
+    assertSameAsCriteria("findByTitleStartingWithIgnoreCase", "Re_");
+    assertSameAsCriteria("findByTitleNotLike", "a%");
+  }
+
+  @Test
+  void upperCasesIgnoreCaseInArguments() {
+    List<String> sql = assertSameAsCriteria("findByTitleInIgnoreCase", List.of("a", "b"));
+
+    assertThat(sql).contains("1=A", "2=B");
+  }
+
+  @Test
+  void bindsBothBoundsOfBetween() {
+    List<String> sql = assertSameAsCriteria("findByRankBetween", 1, 5);
+
+    assertThat(sql.get(0)).contains(" between ? and ?");
+    assertThat(sql).contains("1=1", "2=5");
+  }
+
+  @Test
+  void joinsNestedToOneAssociations() {
+    assertThat(assertSameAsCriteria("findByAuthorAddressCity", "Hanoi").get(0))
+        .contains(" left join Author a1_0 ", " left join Address a2_0 ");
+    assertThat(assertSameAsCriteria("findByTitleOrderByAuthorAddressCityAscTitleDesc", "a").get(0))
+        .contains(" left join Address a2_0 ", " order by a2_0.city,p1_0.title desc");
+    assertSameAsCriteria("findByAuthorNameOrAuthorAddressCity", "a", "b");
+  }
+
+  @Test
+  void selectsProjections() {
+    assertSameAsCriteria("findTitleDtoByRank", 1);
+    assertSameAsCriteria("findTitleViewByActiveTrue");
+    assertSameAsCriteria("findDistinctByAuthorName", "a");
+  }
+
+  @Test
+  void countsExistsAndDeletes() {
+    assertSameAsCriteria("countByTitleNot", "a");
+    assertSameAsCriteria("existsByRankGreaterThan", 1);
+    assertSameAsCriteria("deleteByAuthorNameAndRankLessThanEqual", "a", 3);
+    assertThat(assertSameAsCriteria("deleteByAuthorNameIsNull").get(0))
+        .contains(" left join Author ");
+    assertSameCountAsCriteria("findByTitleContainingAndActiveFalse", "a");
+    assertSameCountAsCriteria("findDistinctByAuthorName", "a");
+  }
+
+  /** Returns the SQL followed by the bound values, as {@code position=value}. */
+  private static List<String> assertSameAsCriteria(String methodName, Object... arguments) {
+    return assertSameAsCriteria(methodName, false, arguments);
+  }
+
+  private static void assertSameCountAsCriteria(String methodName, Object... arguments) {
+    assertSameAsCriteria(methodName, true, arguments);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> assertSameAsCriteria(
+      String methodName, boolean countQuery, Object... arguments) {
+    Method method = method(methodName);
+    ReactiveJpaParameters parameters = new ReactiveJpaParameters(ParametersSource.of(method));
+    PartTree tree = new PartTree(method.getName(), Post.class);
+    // count projections are run by the count query, as in PartTreeReactiveJpaQuery
+    boolean count = countQuery || tree.isCountProjection();
+    ReturnedType returnedType =
+        ReturnedType.of(resultType(method), Post.class, new SpelAwareProxyProjectionFactory());
+
+    ParameterMetadataProvider hqlParameters = provider(parameters);
+    ReactiveJpaHqlQueryCreator.HqlQuery hql =
+        new ReactiveJpaHqlQueryCreator(
+                tree, returnedType, sessionFactory.getMetamodel(), hqlParameters, count)
+            .createQuery();
+    List<String> fromHql =
+        execute(
+            tree,
+            count,
+            session ->
+                hql.resultType() == null
+                    ? session.createMutationQuery(hql.query())
+                    : session.createSelectionQuery(hql.query(), hql.resultType()),
+            (query, i, value) -> query.setParameter(i + 1, value),
+            hqlParameters,
+            arguments);
+
+    ParameterMetadataProvider criteriaParameters = provider(parameters);
+    List<String> fromCriteria =
+        execute(
+            tree,
+            count,
+            session -> {
+              if (count) {
+                return session.createQuery(
+                    (CriteriaQuery<?>)
+                        new ReactiveJpaCountQueryCreator(
+                                tree,
+                                returnedType,
+                                sessionFactory.getCriteriaBuilder(),
+                                criteriaParameters)
+                            .createQuery());
+              }
+              if (tree.isDelete()) {
+                return session.createMutationQuery(
+                    (CriteriaDelete<?>)
+                        new ReactiveJpaCriteriaDeleteQueryCreator(
+                                tree,
+                                returnedType,
+                                sessionFactory.getCriteriaBuilder(),
+                                criteriaParameters)
+                            .createQuery());
+              }
+              return session.createQuery(
+                  (CriteriaQuery<?>)
+                      new ReactiveJpaCriteriaQueryCreator(
+                              tree,
+                              returnedType,
+                              sessionFactory.getCriteriaBuilder(),
+                              criteriaParameters)
+                          .createQuery());
+            },
+            (query, i, value) ->
+                query.setParameter(
+                    (Parameter<Object>) criteriaParameters.getExpressions().get(i).getExpression(),
+                    value),
+            criteriaParameters,
+            arguments);
+
+    assertThat(fromHql).as(hql.query()).isEqualTo(fromCriteria);
+    return fromHql;
+  }
+
+  private static List<String> execute(
+      PartTree tree,
+      boolean count,
+      java.util.function.Function<Session, CommonQueryContract> factory,
+      Binder binder,
+      ParameterMetadataProvider provider,
+      Object[] arguments) {
+    executed.clear();
+    try (Session session = sessionFactory.openSession()) {
+      CommonQueryContract query = factory.apply(session);
+      List<ParameterMetadataProvider.ParameterMetadata<?>> expressions = provider.getExpressions();
+      for (int i = 0; i < expressions.size(); i++) {
+        binder.bind(query, i, expressions.get(i).prepare(arguments[i]));
+      }
+
+      if (tree.isDelete() && !count) {
+        session.beginTransaction();
+        ((MutationQuery) query).executeUpdate();
+        session.getTransaction().commit();
+      } else {
+        SelectionQuery<?> selection = (SelectionQuery<?>) query;
+        if (tree.isExistsProjection()) {
+          selection.setMaxResults(1);
+        }
+        selection.getResultList();
+      }
+    }
+    return new ArrayList<>(executed);
+  }
+
+  private static ParameterMetadataProvider provider(ReactiveJpaParameters parameters) {
+    return new ParameterMetadataProvider(
+        sessionFactory.getCriteriaBuilder(), parameters, EscapeCharacter.DEFAULT);
+  }
+
+  private static Method method(String name) {
+    for (Method method : PostRepository.class.getDeclaredMethods()) {
+      if (method.getName().equals(name)) {
+        return method;
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+
+  private static Class<?> resultType(Method method) {
+    return method.getReturnType() == List.class
+        ? (Class<?>) ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0]
+        : method.getReturnType();
+  }
+
+  private interface Binder {
+    void bind(CommonQueryContract query, int index, Object value);
+  }
+
+  interface PostRepository {
+
+    List<Post> findByTitleContaining(String title);
+
+    List<Post> findByTitleStartingWithIgnoreCase(String title);
+
+    List<Post> findByTitleNotLike(String title);
+
+    List<Post> findByTitleInIgnoreCase(Collection<String> titles);
+
+    List<Post> findByRankBetween(int from, int to);
+
+    List<Post> findByAuthorAddressCity(String city);
+
+    List<Post> findByTitleOrderByAuthorAddressCityAscTitleDesc(String title);
+
+    List<Post> findByAuthorNameOrAuthorAddressCity(String name, String city);
+
+    List<TitleDto> findTitleDtoByRank(int rank);
+
+    List<TitleView> findTitleViewByActiveTrue();
+
+    List<Post> findDistinctByAuthorName(String name);
+
+    List<Post> findByTitleContainingAndActiveFalse(String title);
+
+    long countByTitleNot(String title);
+
+    boolean existsByRankGreaterThan(int rank);
+
+    long deleteByAuthorNameAndRankLessThanEqual(String name, int rank);
+
+    void deleteByAuthorNameIsNull();
+  }
+
+  public record TitleDto(String title, Long id) {}
+
+  public interface TitleView {
+    String getTitle();
+  }
+
+  @Entity(name = "Address")
+  static class Address {
+    @Id Long id;
+    String city;
+  }
+
+  @Entity(name = "Author")
+  static class Author {
+    @Id Long id;
+    String name;
+    @ManyToOne Address address;
+  }
+
+  @Entity(name = "Post")
+  static class Post {
+    @Id Long id;
+    String title;
+    int rank;
+    boolean active;
+    @ManyToOne Author author;
+  }
+
+  /** Hands out a connection whose statements record their SQL and bound values. */
+  static class RecordingProvider implements ConnectionProvider {
+
+    @Override
+    public Connection getConnection() {
+      InvocationHandler resultSet = (proxy, method, args) -> defaultValue(method);
+      InvocationHandler statement =
+          (proxy, method, args) -> {
+            if (method.getName().startsWith("set") && args != null && args.length >= 2) {
+              executed.add(args[0] + "=" + args[1]);
+            } else if (method.getName().equals("executeQuery")) {
+              return proxy(ResultSet.class, resultSet);
+            }
+            return defaultValue(method);
+          };
+      return proxy(
+          Connection.class,
+          (proxy, method, args) -> {
+            if (method.getName().startsWith("prepare")) {
+              executed.add((String) args[0]);
+              return proxy(PreparedStatement.class, statement);
+            }
+            return method.getName().equals("getAutoCommit") ? true : defaultValue(method);
+          });
+    }
+
+    @Override
+    public void closeConnection(Connection connection) {}
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+      return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+      return false;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+      return null;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+      return type.cast(
+          Proxy.newProxyInstance(
+              RecordingProvider.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object defaultValue(Method method) {
+      Class<?> type = method.getReturnType();
+      if (type == boolean.class) {
+        return false;
+      }
+      if (type == long.class) {
+        return 0L;
+      }
+      return type == int.class ? 0 : null;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.htech.jpa.reactive.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.reactive.pool.ReactiveConnectionPool;
+import org.hibernate.reactive.session.ReactiveConnectionSupplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bao.Ngo
+ */
+class PrefetchingSequenceIdentifierGeneratorTest {
+
+  private static final int BLOCK_SIZE = 10;
+
+  private final ReactiveConnectionSupplier session =
+      () -> {
+        throw new UnsupportedOperationException();
+      };
+
+  @Test
+  void fetchesOnTheCallersConnectionWhenThePoolIsExhausted() throws InterruptedException {
+    TestGenerator generator = new TestGenerator(exhaustedPool());
+    generator.hiValues.add(CompletableFuture.completedFuture(1L));
+    generator.hiValues.add(CompletableFuture.completedFuture(101L));
+
+    for (long id = 1; id <= BLOCK_SIZE; id++) {
+      assertThat(generate(generator)).isEqualTo(id);
+    }
+    awaitSkip(generator);
+    assertThat(generate(generator)).isEqualTo(101L);
+
+    assertThat(generator.suppliers).containsExactly(session, session);
+    assertThat(generator.getStatistics().getFetchCount()).isEqualTo(2);
+    assertThat(generator.getStatistics().getSkipCount()).isPositive();
+  }
+
+  @Test
+  void propagatesAFailedFetchAndRetriesOnTheNextCall() {
+    TestGenerator generator = new TestGenerator(exhaustedPool());
+    generator.hiValues.add(CompletableFuture.failedFuture(new IllegalStateException("down")));
+    generator.hiValues.add(CompletableFuture.completedFuture(1L));
+
+    assertThatThrownBy(() -> generate(generator))
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(generate(generator)).isEqualTo(1L);
+
+    assertThat(generator.getStatistics().getFailureCount()).isEqualTo(1);
+    assertThat(generator.getStatistics().getFetchCount()).isEqualTo(1);
+  }
+
+  @Test
+  void keepsHandingOutIdsWhenThePrefetchFails() {
+    TestGenerator generator = new TestGenerator(failingPool());
+    generator.hiValues.add(CompletableFuture.completedFuture(1L));
+    generator.hiValues.add(CompletableFuture.completedFuture(101L));
+
+    for (long id = 1; id <= BLOCK_SIZE; id++) {
+      assertThat(generate(generator)).isEqualTo(id);
+    }
+    assertThat(generate(generator)).isEqualTo(101L);
+
+    assertThat(generator.suppliers).containsExactly(session, session);
+    assertThat(generator.getStatistics().getFailureCount()).isPositive();
+  }
+
+  private Long generate(TestGenerator generator) {
+    return generator.generate(session, null).toCompletableFuture().join();
+  }
+
+  private static void awaitSkip(TestGenerator generator) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (generator.getStatistics().getSkipCount() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  private static ReactiveConnectionPool exhaustedPool() {
+    return pool(new CompletableFuture<>());
+  }
+
+  private static ReactiveConnectionPool failingPool() {
+    return pool(CompletableFuture.failedFuture(new IllegalStateException("no connection")));
+  }
+
+  private static ReactiveConnectionPool pool(CompletionStage<?> connection) {
+    return (ReactiveConnectionPool)
+        Proxy.newProxyInstance(
+            ReactiveConnectionPool.class.getClassLoader(),
+            new Class<?>[] {ReactiveConnectionPool.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getConnection")) {
+                return connection;
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+
+  private static class TestGenerator extends PrefetchingSequenceIdentifierGenerator {
+
+    private final ReactiveConnectionPool pool;
+    private final Deque<CompletionStage<Long>> hiValues = new ArrayDeque<>();
+    private final List<ReactiveConnectionSupplier> suppliers = new ArrayList<>();
+
+    TestGenerator(ReactiveConnectionPool pool) {
+      super(0.5);
+      this.pool = pool;
+      setStatistics(new SequenceFetchStatistics("test_seq"));
+    }
+
+    @Override
+    protected int getBlockSize() {
+      return BLOCK_SIZE;
+    }
+
+    @Override
+    protected synchronized CompletionStage<Long> nextHiValue(ReactiveConnectionSupplier session) {
+      suppliers.add(session);
+      return hiValues.remove();
+    }
+
+    @Override
+    ReactiveConnectionPool getConnectionPool() {
+      return pool;
+    }
+  }
+}